@@ -0,0 +1,22 @@
+package io.skai.template.config.compression;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "response-compression")
+public class ResponseCompressionConfig {
+
+    private boolean enabled;
+    private DataSize minResponseSize;
+    private List<String> mimeTypes = new ArrayList<>();
+    private List<String> excludedPaths = new ArrayList<>();
+    private DataSize cacheSize;
+    private DataSize maxCacheableSize;
+}
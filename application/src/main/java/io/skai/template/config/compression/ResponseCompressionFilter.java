@@ -0,0 +1,223 @@
+package io.skai.template.config.compression;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.kenshoo.datadog.MetricNameBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips responses of the configured mime types once they reach {@code minResponseSize}, for clients accepting gzip.
+ * Compressed bodies up to {@code maxCacheableSize} are kept in a cache bounded by {@code cacheSize} and keyed by the
+ * hash of the plain body, so hot responses that repeat byte for byte are compressed only once. Tomcat's
+ * {@code server.compression} gzips every response again on every request, and it is applied in the connector, so it
+ * has no such cache and no metrics.
+ * <p>
+ * Requests to {@code excludedPaths} (actuator) are never wrapped. Other responses are buffered only once their
+ * content type turns out to be compressible when the body is first written; anything else, such as binary or
+ * already encoded bodies, streams straight to the client.
+ */
+@Component
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String COMPRESS_METRIC_NAME = new MetricNameBuilder(ResponseCompressionFilter.class).name("compress");
+    private static final String RATIO_METRIC_NAME = new MetricNameBuilder(ResponseCompressionFilter.class).name("ratio");
+    private static final String CACHE_HITS_METRIC_NAME = new MetricNameBuilder(ResponseCompressionFilter.class).name("cache_hits");
+
+    private final ResponseCompressionConfig compressionConfig;
+    private final List<MediaType> mimeTypes;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<HashCode, byte[]> compressedBodies;
+    private final Timer compressTimer;
+    private final DistributionSummary ratio;
+    private final Counter cacheHits;
+
+    public ResponseCompressionFilter(ResponseCompressionConfig compressionConfig, MeterRegistry meterRegistry) {
+        this.compressionConfig = compressionConfig;
+        this.mimeTypes = MediaType.parseMediaTypes(compressionConfig.getMimeTypes());
+        this.compressedBodies = CacheBuilder.newBuilder()
+                .maximumWeight(compressionConfig.getCacheSize().toBytes())
+                .<HashCode, byte[]>weigher((hash, compressed) -> compressed.length)
+                .build();
+        this.compressTimer = meterRegistry.timer(COMPRESS_METRIC_NAME);
+        this.ratio = meterRegistry.summary(RATIO_METRIC_NAME);
+        this.cacheHits = meterRegistry.counter(CACHE_HITS_METRIC_NAME);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !compressionConfig.isEnabled()
+                || !StringUtils.containsIgnoreCase(request.getHeader(HttpHeaders.ACCEPT_ENCODING), GZIP)
+                || isExcluded(request);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final CompressibleResponseWrapper existingWrapper = WebUtils.getNativeResponse(response, CompressibleResponseWrapper.class);
+        final CompressibleResponseWrapper wrapper = existingWrapper == null ? new CompressibleResponseWrapper(response) : existingWrapper;
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                writeResponse(wrapper);
+            }
+        }
+    }
+
+    private boolean isExcluded(HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        return compressionConfig.getExcludedPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private void writeResponse(CompressibleResponseWrapper wrapper) throws IOException {
+        final HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
+        if (!wrapper.isBuffering() || !isCompressible(wrapper)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        final byte[] body = wrapper.getContentAsByteArray();
+        if (body.length < compressionConfig.getMinResponseSize().toBytes()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        final byte[] compressed = compressed(body);
+        if (compressed.length >= body.length) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        wrapper.resetBuffer();
+        rawResponse.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        rawResponse.setContentLength(compressed.length);
+        rawResponse.getOutputStream().write(compressed);
+        rawResponse.flushBuffer();
+    }
+
+    private boolean isCompressible(HttpServletResponse response) {
+        if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null || response.getContentType() == null) {
+            return false;
+        }
+        final MediaType contentType = MediaType.parseMediaType(response.getContentType());
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+    }
+
+    private byte[] compressed(byte[] body) {
+        if (body.length > compressionConfig.getMaxCacheableSize().toBytes()) {
+            return gzip(body);
+        }
+        final HashCode hash = Hashing.sha256().hashBytes(body);
+        final byte[] cached = compressedBodies.getIfPresent(hash);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        final byte[] compressed = gzip(body);
+        compressedBodies.put(hash, compressed);
+        return compressed;
+    }
+
+    private byte[] gzip(byte[] body) {
+        return compressTimer.record(() -> {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(body.length / 4, 64));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ratio.record((double) compressed.size() / body.length);
+            return compressed.toByteArray();
+        });
+    }
+
+    /**
+     * Decides whether to buffer when the body is first written, by which time handlers have set the content type;
+     * responses that cannot be compressed bypass the buffer, keeping their content length and flushes.
+     */
+    private class CompressibleResponseWrapper extends ContentCachingResponseWrapper {
+
+        private Boolean buffering;
+        private Long contentLength;
+
+        CompressibleResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        boolean isBuffering() {
+            if (buffering == null) {
+                buffering = isCompressible(this);
+                if (!buffering && contentLength != null) {
+                    getResponse().setContentLengthLong(contentLength);
+                }
+            }
+            return buffering;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isBuffering() ? super.getOutputStream() : getResponse().getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isBuffering() ? super.getWriter() : getResponse().getWriter();
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (buffering == null) {
+                contentLength = len;
+            }
+            if (Boolean.FALSE.equals(buffering)) {
+                getResponse().setContentLengthLong(len);
+            } else {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isBuffering()) {
+                super.flushBuffer();
+            } else {
+                getResponse().flushBuffer();
+            }
+        }
+    }
+}
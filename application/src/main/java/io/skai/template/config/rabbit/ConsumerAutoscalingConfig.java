@@ -0,0 +1,18 @@
+package io.skai.template.config.rabbit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "consumer-autoscaling")
+public class ConsumerAutoscalingConfig {
+
+    private boolean enabled;
+    private Duration interval;
+    private Duration targetDrainTime;
+    private Duration cooldown;
+}
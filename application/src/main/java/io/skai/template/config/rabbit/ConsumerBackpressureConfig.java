@@ -0,0 +1,20 @@
+package io.skai.template.config.rabbit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "consumer-backpressure")
+public class ConsumerBackpressureConfig {
+
+    private boolean enabled;
+    private Duration interval;
+    private double pauseAboveUtilization;
+    private int pauseAboveAwaitingThreads;
+    private int pauseAfterSaturatedChecks;
+    private double resumeBelowUtilization;
+}
@@ -0,0 +1,19 @@
+package io.skai.template.config.rabbit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxConfig {
+
+    private boolean enabled;
+    private Duration relayInterval;
+    private int batchSize;
+    private String routingKeyPrefix;
+    private Duration confirmTimeout;
+}
@@ -0,0 +1,20 @@
+package io.skai.template.config.rabbit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rabbit-publisher")
+public class PublisherConfig {
+
+    private int channels;
+    private int bufferSize;
+    private int maxBatchSize;
+    private int maxOutstandingConfirms;
+    private Duration offerTimeout;
+    private Duration confirmTimeout;
+}
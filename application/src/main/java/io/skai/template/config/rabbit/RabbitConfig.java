@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "rabbit")
@@ -14,7 +17,12 @@ public class RabbitConfig {
     private String username;
     private String password;
     private String exchange;
-    private String queueName;
-    private String bindingKey;
-    private int numOfListeners;
+    private List<RabbitConsumerConfig> consumers = new ArrayList<>();
+
+    public RabbitConsumerConfig getConsumer(String name) {
+        return consumers.stream()
+                .filter(consumerConfig -> consumerConfig.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No rabbit consumer configured with name " + name));
+    }
 }
@@ -0,0 +1,29 @@
+package io.skai.template.config.rabbit;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RabbitConsumerConfig {
+
+    private String name;
+    private String handler;
+    private String queueName;
+    private String bindingKey;
+    private int numOfListeners;
+    private int maxNumOfListeners;
+    /**
+     * Kjobster's ConsumerConfiguration takes only the broker details and the worker count, so the broker prefetch cannot
+     * be set per consumer. The key is bound so a configured value fails startup instead of being silently ignored.
+     */
+    private int prefetch;
+    private int batchSize;
+    private Duration batchWindow;
+    private List<Duration> retryDelays = new ArrayList<>();
+    private Duration dedupeTtl;
+    private int partitions;
+    private boolean databaseBackpressure;
+}
@@ -0,0 +1,18 @@
+package io.skai.template.config.rabbit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "write-command")
+public class WriteCommandConfig {
+
+    private String consumer;
+    private int batchSize;
+    private Duration batchWindow;
+    private Duration operationTtl;
+}
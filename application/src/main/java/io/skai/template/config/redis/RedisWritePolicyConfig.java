@@ -0,0 +1,20 @@
+package io.skai.template.config.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "redis-write-policy")
+public class RedisWritePolicyConfig {
+
+    private Duration defaultTtl;
+    private Map<String, Duration> ttlByPrefix = new LinkedHashMap<>();
+    private int compressionThreshold;
+    private int maxValueBytes;
+}
@@ -0,0 +1,92 @@
+package io.skai.template.config.threads;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs fetch queries off the Tomcat workers on a bounded pool sized to the Hikari pool minus
+ * {@code fetch-executor.reservedConnections}, so heavy fetches queue here instead of holding request threads and
+ * connections that cheap lookups need. Once the queue is full a fetch is rejected straight away with a
+ * {@link FetchRejectedException}.
+ */
+@Slf4j
+@Component
+public class FetchExecutor implements DisposableBean {
+
+    private static final String QUEUE_METRIC_NAME = new MetricNameBuilder(FetchExecutor.class).name("queue");
+    private static final String ACTIVE_METRIC_NAME = new MetricNameBuilder(FetchExecutor.class).name("active");
+    private static final String WAIT_METRIC_NAME = new MetricNameBuilder(FetchExecutor.class).name("wait");
+    private static final String REJECTED_METRIC_NAME = new MetricNameBuilder(FetchExecutor.class).name("rejected");
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer waitTimer;
+
+    @Autowired
+    public FetchExecutor(FetchExecutorConfig fetchExecutorConfig, DataSource dataSource, MeterRegistry meterRegistry) throws SQLException {
+        this(Math.max(1, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() - fetchExecutorConfig.getReservedConnections()),
+                fetchExecutorConfig.getQueueCapacity(), meterRegistry);
+    }
+
+    FetchExecutor(int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "fetch-" + threadCounter.incrementAndGet()));
+        this.meterRegistry = meterRegistry;
+        this.waitTimer = meterRegistry.timer(WAIT_METRIC_NAME);
+        meterRegistry.gauge(QUEUE_METRIC_NAME, executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge(ACTIVE_METRIC_NAME, executor, ThreadPoolExecutor::getActiveCount);
+        log.info("Fetch executor started with {} threads and a queue of {}", threads, queueCapacity);
+    }
+
+    /**
+     * Schedules the fetch and carries the caller's MDC over, so the request trace id stays on the fetch logs.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> fetch) {
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        final long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return fetch.get();
+                } finally {
+                    MDC.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter(REJECTED_METRIC_NAME).increment();
+            throw new FetchRejectedException("Fetch executor is full with " + executor.getQueue().size() + " queued fetches", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Fetch executor did not drain within {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.skai.template.config.threads;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "fetch-executor")
+public class FetchExecutorConfig {
+
+    private int reservedConnections;
+    private int queueCapacity;
+}
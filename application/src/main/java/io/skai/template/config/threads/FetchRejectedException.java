@@ -0,0 +1,9 @@
+package io.skai.template.config.threads;
+
+public class FetchRejectedException extends RuntimeException {
+
+    public FetchRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,29 @@
+package io.skai.template.config.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in execution mode running every Tomcat request on its own virtual thread instead of the bounded platform thread
+ * pool, so requests blocked on JDBC or redis no longer cap concurrency. Concurrency is then bounded by
+ * {@code server.tomcat.max-connections} and, for database work, the Hikari pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final String TOMCAT_HANDLER_THREAD_PREFIX = "tomcat-handler-";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(VirtualThreads.executor(TOMCAT_HANDLER_THREAD_PREFIX));
+            log.info("Tomcat requests run on virtual threads");
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package io.skai.template.config.threads;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads when the runtime has them (Java 21+). The module still compiles for Java 17, so the
+ * {@code Thread.Builder} API is reached reflectively and callers check {@link #isSupported()} first.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = method(Thread.class.getName(), "ofVirtual");
+    private static final Method BUILDER_NAME = method("java.lang.Thread$Builder", "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = method("java.lang.Thread$Builder", "factory");
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null && BUILDER_NAME != null && BUILDER_FACTORY != null;
+    }
+
+    public static ThreadFactory factory(String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on " + Runtime.version());
+        }
+        try {
+            final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * An executor starting one virtual thread per task, the equivalent of {@code Executors.newThreadPerTaskExecutor}.
+     */
+    public static Executor executor(String namePrefix) {
+        final ThreadFactory threadFactory = factory(namePrefix);
+        return task -> threadFactory.newThread(task).start();
+    }
+
+    private static Method method(String className, String name, Class<?>... parameterTypes) {
+        try {
+            return Class.forName(className).getMethod(name, parameterTypes);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -17,12 +17,14 @@ public class RequestTraceIdHandler implements AsyncHandlerInterceptor {
 
     private static final String TRACE_ID = "kenshooTraceId";
     private static final String TRACE_ID_HEADER = "X-kenshoo-trace-id";
+    private static final String TRACE_ID_ATTRIBUTE = RequestTraceIdHandler.class.getName() + ".traceId";
 
     private ThreadLocal<Set<String>> storedKeys = ThreadLocal.withInitial(HashSet::new);
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         String traceID = getTraceID(request);
+        request.setAttribute(TRACE_ID_ATTRIBUTE, traceID);
         addKey(TRACE_ID, traceID);
         response.setHeader(TRACE_ID_HEADER, traceID);
         return true;
@@ -43,11 +45,15 @@ public class RequestTraceIdHandler implements AsyncHandlerInterceptor {
         storedKeys.get().add(key);
     }
 
+    /**
+     * Async fetches dispatch the same request twice, so the id chosen on the first dispatch is kept as a request
+     * attribute and reused on the second instead of generating another one.
+     */
     private String getTraceID(HttpServletRequest request) {
         return Optional
-                .ofNullable(request.getHeader(TRACE_ID_HEADER))
-                .filter(StringUtils::isNoneEmpty)
-                .orElse(UUID.randomUUID().toString());
+                .ofNullable((String) request.getAttribute(TRACE_ID_ATTRIBUTE))
+                .or(() -> Optional.ofNullable(request.getHeader(TRACE_ID_HEADER)).filter(StringUtils::isNoneEmpty))
+                .orElseGet(() -> UUID.randomUUID().toString());
     }
 
     private void removeKeys() {
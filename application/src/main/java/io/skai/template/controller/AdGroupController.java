@@ -1,25 +1,34 @@
 package io.skai.template.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenshoo.auth.KenshooPrincipal;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.ApiResponse;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import com.kenshoo.openplatform.apimodel.WriteResponseDto;
 import com.kenshoo.openplatform.apimodel.enums.StatusResponse;
-import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.config.threads.FetchExecutor;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.FetchQuery;
-import io.skai.template.dataaccess.entities.QueryFilterException;
+import io.skai.template.dataaccess.entities.FetchedEntity;
+import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
 import io.skai.template.services.AdGroupService;
+import io.skai.template.services.FilterQueryParser;
+import io.skai.template.services.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Arrays;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @Slf4j
@@ -27,19 +36,30 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AdGroupController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENCY_SCOPE = "ad_group";
+
     private final AdGroupService adGroupService;
+    private final IdempotencyService idempotencyService;
+    private final FilterQueryParser filterQueryParser;
+    private final FetchExecutor fetchExecutor;
 
     @PostMapping("/")
     @ResponseStatus(code = HttpStatus.CREATED)
-    public ApiResponse<WriteResponseDto<Long>> createAdGroup(@RequestBody AdGroup adGroup) {
-        final long adGroupId = adGroupService.create(adGroup);
+    public ApiResponse<WriteResponseDto<Long>> createAdGroup(@RequestBody AdGroup adGroup,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                             @AuthenticationPrincipal KenshooPrincipal principal) {
+        final long adGroupId = idempotencyKey == null
+                ? adGroupService.create(adGroup)
+                : idempotencyService.execute(IDEMPOTENCY_SCOPE, principal.getEmail(), idempotencyKey, adGroup, () -> adGroupService.create(adGroup));
         return responseAdGroup(adGroupId);
     }
 
     @GetMapping("/{id}")
     @ResponseStatus(code = HttpStatus.OK)
-    public ApiResponse<AdGroup> findAdGroup(@PathVariable long id) {
+    public ApiResponse<AdGroup> findAdGroup(@PathVariable long id, HttpServletResponse response) {
         final AdGroup adGroup = adGroupService.findById(id);
+        response.setHeader(HttpHeaders.ETAG, IfMatchParser.toETag(adGroup.getLastUpdated()));
         return new ApiResponse.Builder<AdGroup>()
                 .withStatus(StatusResponse.SUCCESS)
                 .withEntities(List.of(adGroup))
@@ -48,9 +68,26 @@ public class AdGroupController {
 
     @PutMapping("/{id}")
     @ResponseStatus(code = HttpStatus.OK)
-    public ApiResponse<WriteResponseDto<Long>> updateAdGroup(@PathVariable long id, @RequestBody AdGroup adGroup) {
-        final long adGroupId = adGroupService.update(id, adGroup);
-        return responseAdGroup(adGroupId);
+    public ApiResponse<WriteResponseDto<Long>> updateAdGroup(@PathVariable long id, @RequestBody AdGroup adGroup,
+                                                             @RequestHeader(value = IfMatchParser.IF_MATCH_HEADER, required = false) String ifMatch,
+                                                             HttpServletResponse response) {
+        final LocalDateTime lastUpdated;
+        if (ifMatch == null) {
+            lastUpdated = adGroupService.update(id, adGroup);
+        } else if (IfMatchParser.matchesAnyEntity(ifMatch)) {
+            lastUpdated = updateExisting(id, adGroup);
+        } else {
+            lastUpdated = adGroupService.update(id, adGroup, IfMatchParser.parseLastUpdated(ifMatch));
+        }
+        response.setHeader(HttpHeaders.ETAG, IfMatchParser.toETag(lastUpdated));
+        return responseAdGroup(id);
+    }
+
+    @PostMapping("/upsert")
+    @ResponseStatus(code = HttpStatus.OK)
+    public ApiResponse<WriteResponseDto<Long>> upsertAdGroups(@RequestBody List<AdGroup> adGroups) {
+        final List<Long> adGroupIds = adGroupService.upsert(adGroups);
+        return responseAdGroups(adGroupIds);
     }
 
     @DeleteMapping("/{id}")
@@ -61,18 +98,44 @@ public class AdGroupController {
     }
 
     @GetMapping("/")
-    public ApiResponse<AdGroup> fetchAllAdGroups(FetchQuery fetchQuery) {
-        final ApiFetchRequest<QueryFilter<String>> apiFetchRequest = new ApiFetchRequest.Builder<QueryFilter<String>>()
-                .withFilters(parseFilterQuery(fetchQuery.filters()))
-                .withFields(fetchQuery.fields())
-                .withLimit(fetchQuery.limit())
+    public CompletableFuture<ApiResponse<FetchedEntity>> fetchAllAdGroups(FetchQuery fetchQuery) {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchQuery(fetchQuery);
+
+        return fetchExecutor.supply(() -> responseFetched(adGroupService.fetchAdGroups(apiFetchRequest)));
+    }
+
+    @PostMapping(value = "/search", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ApiResponse<FetchedEntity>> searchAdGroups(InputStream body) {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchRequest(body);
+        return fetchExecutor.supply(() -> responseFetched(adGroupService.fetchAdGroups(apiFetchRequest)));
+    }
+
+    private LocalDateTime updateExisting(long id, AdGroup adGroup) {
+        try {
+            return adGroupService.update(id, adGroup);
+        } catch (FieldValidationException e) {
+            throw new PreconditionFailedException(id, e.getFieldErrors());
+        }
+    }
+
+    private ApiResponse<FetchedEntity> responseFetched(List<FetchedEntity> fetchedEntities) {
+        return new ApiResponse.Builder<FetchedEntity>()
+                .withStatus(StatusResponse.SUCCESS)
+                .withEntities(fetchedEntities)
                 .build();
+    }
 
-        final List<AdGroup> fetchedCampaigns = adGroupService.fetchAdGroups(apiFetchRequest);
+    private ApiResponse<WriteResponseDto<Long>> responseAdGroups(List<Long> ids) {
+        final List<WriteResponseDto<Long>> dtos = ids.stream()
+                .map(id -> new WriteResponseDto.Builder<Long>()
+                        .withErrors(Collections.emptyList())
+                        .withId(id)
+                        .build())
+                .toList();
 
-        return new ApiResponse.Builder<AdGroup>()
+        return new ApiResponse.Builder<WriteResponseDto<Long>>()
                 .withStatus(StatusResponse.SUCCESS)
-                .withEntities(fetchedCampaigns)
+                .withEntities(dtos)
                 .build();
     }
 
@@ -88,14 +151,4 @@ public class AdGroupController {
                 .build();
     }
 
-    private static List<QueryFilter<String>> parseFilterQuery(String filter) {
-        final ObjectMapper mapper = new ObjectMapper();
-        try {
-            final QueryFilter<String>[] queryFilters = mapper.readValue(filter, QueryFilter[].class);
-            return Arrays.asList(queryFilters);
-        } catch (JsonProcessingException e) {
-            throw new QueryFilterException(List.of(new FieldError("filters", "Cannot parse filters query param. Invalid json pattern")));
-        }
-    }
-
 }
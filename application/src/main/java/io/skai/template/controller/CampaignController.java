@@ -1,29 +1,35 @@
 package io.skai.template.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenshoo.auth.KenshooPrincipal;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.ApiResponse;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import com.kenshoo.openplatform.apimodel.WriteResponseDto;
-import com.kenshoo.openplatform.apimodel.enums.FilterOperator;
 import com.kenshoo.openplatform.apimodel.enums.StatusResponse;
-import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.config.threads.FetchExecutor;
 import io.skai.template.dataaccess.entities.Campaign;
 import io.skai.template.dataaccess.entities.FetchQuery;
-import io.skai.template.dataaccess.entities.QueryFilterException;
+import io.skai.template.dataaccess.entities.FetchedEntity;
+import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
+import io.skai.template.services.CampaignCommandService;
 import io.skai.template.services.CampaignService;
+import io.skai.template.services.FilterQueryParser;
+import io.skai.template.services.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
-import org.jooq.lambda.Seq;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @Slf4j
@@ -31,19 +37,46 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CampaignController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENCY_SCOPE = "campaign";
+
     private final CampaignService campaignService;
+    private final CampaignCommandService campaignCommandService;
+    private final IdempotencyService idempotencyService;
+    private final FilterQueryParser filterQueryParser;
+    private final FetchExecutor fetchExecutor;
 
     @PostMapping("/")
     @ResponseStatus(code = HttpStatus.CREATED)
-    public ApiResponse<WriteResponseDto<Long>> createCampaign(@RequestBody Campaign campaign) {
-        final long campaignId = campaignService.create(campaign);
+    public ApiResponse<WriteResponseDto<Long>> createCampaign(@RequestBody Campaign campaign,
+                                                              @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                              @AuthenticationPrincipal KenshooPrincipal principal) {
+        final long campaignId = idempotencyKey == null
+                ? campaignService.create(campaign)
+                : idempotencyService.execute(IDEMPOTENCY_SCOPE, principal.getEmail(), idempotencyKey, campaign, () -> campaignService.create(campaign));
         return responseCampaign(campaignId);
     }
 
+    @PostMapping("/async")
+    @ResponseStatus(code = HttpStatus.ACCEPTED)
+    public ApiResponse<WriteResponseDto<String>> createCampaignAsync(@RequestBody Campaign campaign) {
+        final String operationId = campaignCommandService.submitCreate(campaign);
+        final WriteResponseDto<String> dto = new WriteResponseDto.Builder<String>()
+                .withErrors(Collections.emptyList())
+                .withId(operationId)
+                .build();
+
+        return new ApiResponse.Builder<WriteResponseDto<String>>()
+                .withStatus(StatusResponse.SUCCESS)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(code = HttpStatus.OK)
-    public ApiResponse<Campaign> findCampaign(@PathVariable long id) {
+    public ApiResponse<Campaign> findCampaign(@PathVariable long id, HttpServletResponse response) {
         final Campaign campaign = campaignService.findById(id);
+        response.setHeader(HttpHeaders.ETAG, IfMatchParser.toETag(campaign.getLastUpdated()));
         return new ApiResponse.Builder<Campaign>()
                 .withStatus(StatusResponse.SUCCESS)
                 .withEntities(List.of(campaign))
@@ -52,9 +85,26 @@ public class CampaignController {
 
     @PutMapping("/{id}")
     @ResponseStatus(code = HttpStatus.OK)
-    public ApiResponse<WriteResponseDto<Long>> updateCampaign(@PathVariable long id, @RequestBody Campaign campaign) {
-        final long campaignId = campaignService.update(id, campaign);
-        return responseCampaign(campaignId);
+    public ApiResponse<WriteResponseDto<Long>> updateCampaign(@PathVariable long id, @RequestBody Campaign campaign,
+                                                              @RequestHeader(value = IfMatchParser.IF_MATCH_HEADER, required = false) String ifMatch,
+                                                              HttpServletResponse response) {
+        final LocalDateTime lastUpdated;
+        if (ifMatch == null) {
+            lastUpdated = campaignService.update(id, campaign);
+        } else if (IfMatchParser.matchesAnyEntity(ifMatch)) {
+            lastUpdated = updateExisting(id, campaign);
+        } else {
+            lastUpdated = campaignService.update(id, campaign, IfMatchParser.parseLastUpdated(ifMatch));
+        }
+        response.setHeader(HttpHeaders.ETAG, IfMatchParser.toETag(lastUpdated));
+        return responseCampaign(id);
+    }
+
+    @PostMapping("/upsert")
+    @ResponseStatus(code = HttpStatus.OK)
+    public ApiResponse<WriteResponseDto<Long>> upsertCampaigns(@RequestBody List<Campaign> campaigns) {
+        final List<Long> campaignIds = campaignService.upsert(campaigns);
+        return responseCampaigns(campaignIds);
     }
 
     @DeleteMapping("/{id}")
@@ -65,18 +115,44 @@ public class CampaignController {
     }
 
     @GetMapping("/")
-    public ApiResponse<Campaign> fetchAllCampaigns(FetchQuery fetchQuery) {
-        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = new ApiFetchRequest.Builder<QueryFilter<List<String>>>()
-                .withFilters(parseFilterQuery(fetchQuery.filters()))
-                .withFields(fetchQuery.fields())
-                .withLimit(fetchQuery.limit())
+    public CompletableFuture<ApiResponse<FetchedEntity>> fetchAllCampaigns(FetchQuery fetchQuery) {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchQuery(fetchQuery);
+
+        return fetchExecutor.supply(() -> responseFetched(campaignService.fetchCampaigns(apiFetchRequest)));
+    }
+
+    @PostMapping(value = "/search", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ApiResponse<FetchedEntity>> searchCampaigns(InputStream body) {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchRequest(body);
+        return fetchExecutor.supply(() -> responseFetched(campaignService.fetchCampaigns(apiFetchRequest)));
+    }
+
+    private LocalDateTime updateExisting(long id, Campaign campaign) {
+        try {
+            return campaignService.update(id, campaign);
+        } catch (FieldValidationException e) {
+            throw new PreconditionFailedException(id, e.getFieldErrors());
+        }
+    }
+
+    private ApiResponse<FetchedEntity> responseFetched(List<FetchedEntity> fetchedEntities) {
+        return new ApiResponse.Builder<FetchedEntity>()
+                .withStatus(StatusResponse.SUCCESS)
+                .withEntities(fetchedEntities)
                 .build();
+    }
 
-        final List<Campaign> fetchedCampaigns = campaignService.fetchCampaigns(apiFetchRequest);
+    private ApiResponse<WriteResponseDto<Long>> responseCampaigns(List<Long> ids) {
+        final List<WriteResponseDto<Long>> dtos = ids.stream()
+                .map(id -> new WriteResponseDto.Builder<Long>()
+                        .withErrors(Collections.emptyList())
+                        .withId(id)
+                        .build())
+                .toList();
 
-        return new ApiResponse.Builder<Campaign>()
+        return new ApiResponse.Builder<WriteResponseDto<Long>>()
                 .withStatus(StatusResponse.SUCCESS)
-                .withEntities(fetchedCampaigns)
+                .withEntities(dtos)
                 .build();
     }
 
@@ -92,44 +168,4 @@ public class CampaignController {
                 .build();
     }
 
-    private static List<QueryFilter<List<String>>> parseFilterQuery(String filter) {
-        final ObjectMapper mapper = new ObjectMapper();
-        try {
-            return Seq.seq(mapper.readTree(filter).iterator()).map(jsonNode -> {
-                final String fieldNotContainsMessage = "Json not contains field";
-                final String field = Optional.ofNullable(jsonNode.get("field"))
-                        .orElseThrow(
-                                () -> new QueryFilterException(List.of(new FieldError("field", fieldNotContainsMessage)))
-                        ).asText();
-                final String operator = Optional.ofNullable(jsonNode.get("operator"))
-                        .orElseThrow(
-                                () -> new QueryFilterException(List.of(new FieldError("operator", fieldNotContainsMessage)))
-                        ).asText();
-                final List<String> values = Seq.seq(Optional.ofNullable(jsonNode.get("values"))
-                        .orElseThrow(
-                                () -> new QueryFilterException(List.of(new FieldError("values", fieldNotContainsMessage)))
-                        ).iterator()).map(JsonNode::asText).toList();
-
-                validateJsonValues(field, operator, values);
-
-                final FilterOperator filterOperator = FilterOperator.valueOf(operator);
-
-
-                return new QueryFilter<>(field, filterOperator, values);
-            }).toList();
-        } catch (JsonProcessingException e) {
-            throw new QueryFilterException(List.of(new FieldError("filters", "Cannot parse filters query param. Invalid json pattern")));
-        }
-    }
-
-    private static void validateJsonValues(String field, String operator, List<String> values) {
-        if (StringUtils.isEmpty(field) || StringUtils.isBlank(field)) {
-            throw new QueryFilterException(List.of(new FieldError("field", "Field value can not be empty")));
-        } else if (StringUtils.isEmpty(operator) || StringUtils.isBlank(operator)) {
-            throw new QueryFilterException(List.of(new FieldError("operator", "Operator value can not be empty")));
-        } else if (values.isEmpty()) {
-            throw new QueryFilterException(List.of(new FieldError("values", "Value array can not be empty")));
-        }
-    }
-
 }
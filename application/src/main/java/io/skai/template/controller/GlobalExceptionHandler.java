@@ -3,20 +3,31 @@ package io.skai.template.controller;
 import com.kenshoo.openplatform.apimodel.ApiResponse;
 import com.kenshoo.openplatform.apimodel.WriteResponseDto;
 import com.kenshoo.openplatform.apimodel.enums.StatusResponse;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.config.threads.FetchRejectedException;
 import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.IdempotencyConflictException;
+import io.skai.template.dataaccess.entities.IdempotencyKeyReuseException;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
 import io.skai.template.dataaccess.entities.QueryFilterException;
+import io.skai.template.rabbit.producer.MessagePublishException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String FETCH_RETRY_AFTER_SECONDS = "1";
+
     @ExceptionHandler({FieldValidationException.class})
     @ResponseStatus(code = HttpStatus.NOT_FOUND)
     public ApiResponse<WriteResponseDto<Long>> idException(FieldValidationException e) {
@@ -31,6 +42,20 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler({PreconditionFailedException.class})
+    @ResponseStatus(code = HttpStatus.PRECONDITION_FAILED)
+    public ApiResponse<WriteResponseDto<Long>> preconditionFailedException(PreconditionFailedException e) {
+        final WriteResponseDto<Long> dto = new WriteResponseDto.Builder<Long>()
+                .withErrors(e.getFieldErrors())
+                .withId(e.getEntityId())
+                .build();
+
+        return new ApiResponse.Builder<WriteResponseDto<Long>>()
+                .withStatus(StatusResponse.FAILED)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
     @ExceptionHandler({QueryFilterException.class})
     @ResponseStatus(code = HttpStatus.NOT_FOUND)
     public ApiResponse<?> invalidQueryFilterException(QueryFilterException e) {
@@ -44,4 +69,72 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler({InvalidRequestException.class})
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST)
+    public ApiResponse<?> invalidRequestException(InvalidRequestException e) {
+        final WriteResponseDto<?> dto = new WriteResponseDto.Builder<>()
+                .withErrors(e.getFieldErrors())
+                .build();
+
+        return new ApiResponse.Builder<>()
+                .withStatus(StatusResponse.FAILED)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
+    @ExceptionHandler({IdempotencyConflictException.class})
+    @ResponseStatus(code = HttpStatus.CONFLICT)
+    public ApiResponse<?> idempotencyConflictException(IdempotencyConflictException e) {
+        final WriteResponseDto<?> dto = new WriteResponseDto.Builder<>()
+                .withErrors(e.getFieldErrors())
+                .build();
+
+        return new ApiResponse.Builder<>()
+                .withStatus(StatusResponse.FAILED)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
+    @ExceptionHandler({IdempotencyKeyReuseException.class})
+    @ResponseStatus(code = HttpStatus.UNPROCESSABLE_ENTITY)
+    public ApiResponse<?> idempotencyKeyReuseException(IdempotencyKeyReuseException e) {
+        final WriteResponseDto<?> dto = new WriteResponseDto.Builder<>()
+                .withErrors(e.getFieldErrors())
+                .build();
+
+        return new ApiResponse.Builder<>()
+                .withStatus(StatusResponse.FAILED)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
+    @ExceptionHandler({MessagePublishException.class})
+    @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiResponse<?> messagePublishException(MessagePublishException e) {
+        log.error("Failed to publish message", e);
+        final WriteResponseDto<?> dto = new WriteResponseDto.Builder<>()
+                .withErrors(List.of(new FieldError("message", "Request cannot be queued right now, please retry later.")))
+                .build();
+
+        return new ApiResponse.Builder<>()
+                .withStatus(StatusResponse.FAILED)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
+    @ExceptionHandler({FetchRejectedException.class})
+    @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiResponse<?> fetchRejectedException(FetchRejectedException e, HttpServletResponse response) {
+        log.warn(e.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, FETCH_RETRY_AFTER_SECONDS);
+        final WriteResponseDto<?> dto = new WriteResponseDto.Builder<>()
+                .withErrors(List.of(new FieldError("fetch", "Too many fetches in progress, please retry later.")))
+                .build();
+
+        return new ApiResponse.Builder<>()
+                .withStatus(StatusResponse.FAILED)
+                .withEntities(List.of(dto))
+                .build();
+    }
+
 }
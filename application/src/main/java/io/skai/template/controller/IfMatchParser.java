@@ -0,0 +1,42 @@
+package io.skai.template.controller;
+
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+final class IfMatchParser {
+
+    static final String IF_MATCH_HEADER = "If-Match";
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY_ENTITY = "*";
+
+    private IfMatchParser() {
+    }
+
+    static boolean matchesAnyEntity(String ifMatch) {
+        return ANY_ENTITY.equals(ifMatch.trim());
+    }
+
+    static String toETag(LocalDateTime lastUpdated) {
+        return "\"" + lastUpdated + "\"";
+    }
+
+    /**
+     * A value that is not a timestamp is a malformed header, answered with 400; a well-formed value that does not
+     * match the entity is answered with 412 by the update itself.
+     */
+    static LocalDateTime parseLastUpdated(String ifMatch) {
+        final String lastUpdated = StringUtils.strip(StringUtils.removeStart(ifMatch.trim(), WEAK_PREFIX), "\"");
+        try {
+            return LocalDateTime.parse(lastUpdated);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException(List.of(new FieldError("last_updated", "If-Match must contain the 'last_updated' value of the entity.")));
+        }
+    }
+
+}
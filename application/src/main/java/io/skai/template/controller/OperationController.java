@@ -0,0 +1,32 @@
+package io.skai.template.controller;
+
+import com.kenshoo.openplatform.apimodel.ApiResponse;
+import com.kenshoo.openplatform.apimodel.enums.StatusResponse;
+import io.skai.template.dataaccess.entities.Operation;
+import io.skai.template.services.OperationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@Slf4j
+@RequestMapping("api/v1/operation")
+@RequiredArgsConstructor
+public class OperationController {
+
+    private final OperationService operationService;
+
+    @GetMapping("/{id}")
+    @ResponseStatus(code = HttpStatus.OK)
+    public ApiResponse<Operation> findOperation(@PathVariable String id) {
+        final Operation operation = operationService.findById(id);
+        return new ApiResponse.Builder<Operation>()
+                .withStatus(StatusResponse.SUCCESS)
+                .withEntities(List.of(operation))
+                .build();
+    }
+
+}
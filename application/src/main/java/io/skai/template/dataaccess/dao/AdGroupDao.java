@@ -3,7 +3,10 @@ package io.skai.template.dataaccess.dao;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import io.skai.template.dataaccess.entities.AdGroup;
+import io.skai.template.dataaccess.entities.FetchedEntity;
+import io.skai.template.dataaccess.entities.UpdateResult;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,12 +16,16 @@ public interface AdGroupDao {
 
     Optional<AdGroup> findById(long id);
 
-    long update(AdGroup adGroup);
+    UpdateResult update(AdGroup adGroup);
+
+    UpdateResult update(AdGroup adGroup, LocalDateTime expectedLastUpdated);
 
     long deleteById(long id);
 
+    List<Long> upsert(List<AdGroup> adGroups);
+
     List<AdGroup> fetchNotDeletedByKsName(String ksName);
 
-    List<AdGroup> fetchAdGroups(ApiFetchRequest<QueryFilter<String>> apiFetchRequest);
+    List<FetchedEntity> fetchAdGroups(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest);
 
 }
@@ -3,20 +3,33 @@ package io.skai.template.dataaccess.dao;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
+import io.skai.template.dataaccess.entities.UpdateResult;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CampaignDao {
 
     long create(Campaign campaign);
 
+    List<Long> createAll(List<Campaign> campaigns);
+
     Optional<Campaign> findById(long id);
 
-    long update(Campaign campaign);
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    UpdateResult update(Campaign campaign);
+
+    UpdateResult update(Campaign campaign, LocalDateTime expectedLastUpdated);
 
     long deleteById(long id);
 
-    List<Campaign> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest);
+    List<Long> upsert(List<Campaign> campaigns);
+
+    List<FetchedEntity> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest);
 
 }
@@ -0,0 +1,23 @@
+package io.skai.template.dataaccess.dao;
+
+import io.skai.template.dataaccess.entities.OutboxEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface OutboxDao {
+
+    void insert(OutboxEvent.AggregateType aggregateType, OutboxEvent.EventType eventType, long aggregateId, Object payload);
+
+    void insertAll(OutboxEvent.AggregateType aggregateType, OutboxEvent.EventType eventType, Map<Long, ?> payloadsByAggregateId);
+
+    boolean tryLockRelay();
+
+    void unlockRelay();
+
+    List<OutboxEvent> lockOldest(int limit);
+
+    long deleteByIds(Collection<Long> ids);
+
+}
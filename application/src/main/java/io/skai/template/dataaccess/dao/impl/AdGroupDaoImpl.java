@@ -2,24 +2,46 @@ package io.skai.template.dataaccess.dao.impl;
 
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import com.google.common.collect.Lists;
 import io.skai.template.dataaccess.dao.AdGroupDao;
+import io.skai.template.dataaccess.dao.OutboxDao;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
 import io.skai.template.dataaccess.entities.FieldMapper;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.OutboxEvent;
 import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import io.skai.template.dataaccess.table.AdGroupTable;
 import io.skai.template.dataaccess.table.CampaignTable;
 import io.skai.template.services.FieldMapperService;
+import io.skai.template.services.FilterQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Record;
+import org.jooq.Record3;
 import org.jooq.RecordMapper;
+import org.jooq.Record4;
+import org.jooq.Select;
+import org.jooq.Table;
 import org.jooq.TableField;
+import org.jooq.impl.DSL;
+import org.jooq.lambda.Seq;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -29,10 +51,18 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class AdGroupDaoImpl implements AdGroupDao {
 
+    private static final int UPSERT_BATCH_SIZE = 500;
+    private static final String CAMPAIGN_JSON_NAME = "campaign";
+    private static final String REQUESTED_TABLE = "requested";
+    private static final String POSITION_COLUMN = "position";
+
     private final DSLContext dslContext;
     private final FieldMapperService fieldMapperService;
+    private final OutboxDao outboxDao;
+    private final FilterQueryService filterQueryService;
 
     @Override
+    @Transactional
     public long create(AdGroup adGroup) {
         log.info("Create ad group: {}", adGroup);
         dslContext.insertInto(
@@ -45,7 +75,9 @@ public class AdGroupDaoImpl implements AdGroupDao {
                 adGroup.getStatus().name(),
                 adGroup.getCampaignId()
         ).execute();
-        return dslContext.lastID().longValue();
+        final long id = dslContext.lastID().longValue();
+        outboxDao.insert(OutboxEvent.AggregateType.AD_GROUP, OutboxEvent.EventType.CREATED, id, adGroup);
+        return id;
     }
 
     @Override
@@ -58,22 +90,99 @@ public class AdGroupDaoImpl implements AdGroupDao {
     }
 
     @Override
-    public long update(AdGroup adGroup) {
+    @Transactional
+    public UpdateResult update(AdGroup adGroup) {
         log.info("Updating ad group in DB by id : {}", adGroup.getId());
-        return dslContext.update(AdGroupTable.TABLE)
+        final long updatedRows = dslContext.update(AdGroupTable.TABLE)
                 .set(AdGroupTable.TABLE.name, adGroup.getName())
                 .set(AdGroupTable.TABLE.status, adGroup.getStatus().name())
                 .where(AdGroupTable.TABLE.id.eq(adGroup.getId()))
+                .and(isChanged(adGroup))
                 .execute();
+        addToOutbox(updatedRows, OutboxEvent.EventType.UPDATED, adGroup.getId(), adGroup);
+        return updateResult(updatedRows, adGroup.getId());
     }
 
     @Override
+    @Transactional
+    public UpdateResult update(AdGroup adGroup, LocalDateTime expectedLastUpdated) {
+        log.info("Updating ad group in DB by id : {} and last updated : {}", adGroup.getId(), expectedLastUpdated);
+        final long updatedRows = dslContext.update(AdGroupTable.TABLE)
+                .set(AdGroupTable.TABLE.name, adGroup.getName())
+                .set(AdGroupTable.TABLE.status, adGroup.getStatus().name())
+                .where(AdGroupTable.TABLE.id.eq(adGroup.getId()))
+                .and(AdGroupTable.TABLE.lastUpdated.eq(expectedLastUpdated))
+                .and(isChanged(adGroup))
+                .execute();
+        addToOutbox(updatedRows, OutboxEvent.EventType.UPDATED, adGroup.getId(), adGroup);
+        return updateResult(updatedRows, adGroup.getId());
+    }
+
+    /**
+     * Reads last_updated with a locking read, so the value is the one this transaction wrote, or the latest committed
+     * one when nothing changed, and no other write can land before the commit.
+     */
+    private UpdateResult updateResult(long changedRows, long adGroupId) {
+        final LocalDateTime lastUpdated = dslContext.select(AdGroupTable.TABLE.lastUpdated)
+                .from(AdGroupTable.TABLE)
+                .where(AdGroupTable.TABLE.id.eq(adGroupId))
+                .forUpdate()
+                .fetchOne(AdGroupTable.TABLE.lastUpdated);
+        return new UpdateResult(changedRows, lastUpdated);
+    }
+
+    private long addToOutbox(long changedRows, OutboxEvent.EventType eventType, long adGroupId, AdGroup adGroup) {
+        if (changedRows > 0) {
+            outboxDao.insert(OutboxEvent.AggregateType.AD_GROUP, eventType, adGroupId, adGroup);
+        }
+        return changedRows;
+    }
+
+    private static Condition isChanged(AdGroup adGroup) {
+        return AdGroupTable.TABLE.name.isDistinctFrom(adGroup.getName())
+                .or(AdGroupTable.TABLE.status.isDistinctFrom(adGroup.getStatus().name()));
+    }
+
+    @Override
+    @Transactional
     public long deleteById(long id) {
         log.info("Deleting ad group in DB by id : {}", id);
-        return dslContext.update(AdGroupTable.TABLE)
+        final long deletedRows = dslContext.update(AdGroupTable.TABLE)
                 .set(AdGroupTable.TABLE.status, Status.DELETED.name())
                 .where(AdGroupTable.TABLE.id.eq(id))
                 .execute();
+        return addToOutbox(deletedRows, OutboxEvent.EventType.DELETED, id, null);
+    }
+
+    /**
+     * Rows are matched to existing ad groups by the database itself, through a join on the unique (campaign_id, name)
+     * index columns, so ids come back under the same collation rules that decide a duplicate key. Two requested rows
+     * resolving to the same ad group are rejected, and only inserted or changed ad groups reach the outbox.
+     */
+    @Override
+    @Transactional
+    public List<Long> upsert(List<AdGroup> adGroups) {
+        log.info("Upserting {} ad groups in DB by campaign id and name", adGroups.size());
+        final List<Long> ids = new ArrayList<>(adGroups.size());
+        final Map<Long, AdGroup> changedAdGroups = new LinkedHashMap<>();
+        Lists.partition(adGroups, UPSERT_BATCH_SIZE).forEach(batch -> {
+            final Table<Record4<Integer, Long, String, String>> requested = requestedAdGroups(batch);
+            final Map<Integer, Record3<Integer, Long, String>> existing = fetchByRequestedPosition(requested);
+            upsertBatch(requested);
+            final Map<Integer, Record3<Integer, Long, String>> upserted = fetchByRequestedPosition(requested);
+            for (int position = 0; position < batch.size(); position++) {
+                final AdGroup adGroup = batch.get(position);
+                final long id = upserted.get(position).value2();
+                final Record3<Integer, Long, String> previous = existing.get(position);
+                if (previous == null || !previous.value3().equals(adGroup.getStatus().name())) {
+                    changedAdGroups.put(id, adGroup);
+                }
+                ids.add(id);
+            }
+        });
+        rejectDuplicateNaturalKeys(ids);
+        outboxDao.insertAll(OutboxEvent.AggregateType.AD_GROUP, OutboxEvent.EventType.UPSERTED, changedAdGroups);
+        return ids;
     }
 
     @Override
@@ -92,10 +201,10 @@ public class AdGroupDaoImpl implements AdGroupDao {
     }
 
     @Override
-    public List<AdGroup> fetchAdGroups(ApiFetchRequest<QueryFilter<String>> apiFetchRequest) {
+    public List<FetchedEntity> fetchAdGroups(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest) {
         log.info("Fetch adGroup with fetch request: {}", apiFetchRequest);
 
-        final List<QueryFilter<String>> queryFilters = apiFetchRequest.getFilters();
+        final List<QueryFilter<List<String>>> queryFilters = apiFetchRequest.getFilters();
         final List<String> fetchFields = apiFetchRequest.getFields();
         final long limit = apiFetchRequest.getLimit();
 
@@ -104,34 +213,108 @@ public class AdGroupDaoImpl implements AdGroupDao {
 
         final List<TableField<Record, ?>> selectFields = getFetchSelectFields(campaignFields, adGroupFields);
 
+        final Optional<Condition> adGroupCondition = filterQueryService.filteringByAdGroupFields(queryFilters);
+        final Optional<Condition> campaignCondition = filterQueryService.filteringByCampaignFieldsWithPrefixes(queryFilters);
+
+        final Condition condition = Seq.of(adGroupCondition, campaignCondition)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .reduce(Condition::and)
+                .orElse(null);
+
         final Stream<Record> adGroupsStream = dslContext.select(selectFields)
                 .from(AdGroupTable.TABLE)
                 .innerJoin(CampaignTable.TABLE)
                 .on(AdGroupTable.TABLE.campaignId.eq(CampaignTable.TABLE.id))
+                .where(condition)
                 .stream();
 
         return getFetchResponseResult(adGroupsStream, limit, campaignFields, adGroupFields);
     }
 
-    private List<AdGroup> getFetchResponseResult(Stream<Record> campaignRecordsStream,
-                                                 long limit,
-                                                 List<FieldMapper<?, Campaign.CampaignBuilder>> campaignFields,
-                                                 List<FieldMapper<?, AdGroup.AdGroupBuilder>> adGroupFields) {
-        return campaignRecordsStream
-                .limit(limit)
-                .map(record -> {
-                    final AdGroup.AdGroupBuilder adGroupBuilder = AdGroup.builder();
-                    final Campaign.CampaignBuilder campaignBuilder = Campaign.builder();
+    private static Table<Record4<Integer, Long, String, String>> requestedAdGroups(List<AdGroup> adGroups) {
+        Select<Record4<Integer, Long, String, String>> requested = null;
+        for (int position = 0; position < adGroups.size(); position++) {
+            final AdGroup adGroup = adGroups.get(position);
+            final Select<Record4<Integer, Long, String, String>> row = DSL.select(
+                    DSL.val(position).as(POSITION_COLUMN),
+                    DSL.val(adGroup.getCampaignId()).as(AdGroupTable.TABLE.campaignId.getName()),
+                    DSL.val(adGroup.getName()).as(AdGroupTable.TABLE.name.getName()),
+                    DSL.val(adGroup.getStatus().name()).as(AdGroupTable.TABLE.status.getName()));
+            requested = requested == null ? row : requested.unionAll(row);
+        }
+        return requested.asTable(REQUESTED_TABLE);
+    }
+
+    /**
+     * INSERT ... SELECT from the requested rows lets ON DUPLICATE KEY UPDATE read the new status from the derived
+     * table, instead of the VALUES() function that MySQL 8.0.20 deprecates, and still runs on MySQL 5.7.
+     */
+    private void upsertBatch(Table<Record4<Integer, Long, String, String>> requested) {
+        final Field<String> requestedStatus = requested.field(AdGroupTable.TABLE.status.getName(), String.class);
+        dslContext.insertInto(
+                        AdGroupTable.TABLE,
+                        AdGroupTable.TABLE.campaignId,
+                        AdGroupTable.TABLE.name,
+                        AdGroupTable.TABLE.status
+                ).select(DSL.select(
+                                requested.field(AdGroupTable.TABLE.campaignId.getName(), Long.class),
+                                requested.field(AdGroupTable.TABLE.name.getName(), String.class),
+                                requestedStatus)
+                        .from(requested))
+                .onDuplicateKeyUpdate()
+                .set(AdGroupTable.TABLE.status, requestedStatus)
+                .execute();
+    }
+
+    private Map<Integer, Record3<Integer, Long, String>> fetchByRequestedPosition(Table<Record4<Integer, Long, String, String>> requested) {
+        final Field<Integer> position = requested.field(POSITION_COLUMN, Integer.class);
+        return dslContext.select(position, AdGroupTable.TABLE.id, AdGroupTable.TABLE.status)
+                .from(requested)
+                .join(AdGroupTable.TABLE)
+                .on(AdGroupTable.TABLE.campaignId.eq(requested.field(AdGroupTable.TABLE.campaignId.getName(), Long.class)))
+                .and(AdGroupTable.TABLE.name.eq(requested.field(AdGroupTable.TABLE.name.getName(), String.class)))
+                .fetchMap(position);
+    }
 
-                    adGroupFields.forEach(field -> field.getValueApplier().apply(adGroupBuilder, record));
-                    campaignFields.forEach(field -> field.getValueApplier().apply(campaignBuilder, record));
+    private static void rejectDuplicateNaturalKeys(List<Long> ids) {
+        final Map<Long, Integer> firstPositions = new HashMap<>();
+        final List<FieldError> fieldErrors = new ArrayList<>();
+        for (int position = 0; position < ids.size(); position++) {
+            final Integer firstPosition = firstPositions.putIfAbsent(ids.get(position), position);
+            if (firstPosition != null) {
+                fieldErrors.add(new FieldError("name", "Ad group at position " + position
+                        + " has the same campaign_id and name as the ad group at position " + firstPosition + "."));
+            }
+        }
+        if (!fieldErrors.isEmpty()) {
+            throw new InvalidRequestException(fieldErrors);
+        }
+    }
 
-                    final Campaign campaign = campaignBuilder.build();
+    private List<FetchedEntity> getFetchResponseResult(Stream<Record> adGroupRecordsStream,
+                                                       long limit,
+                                                       List<FieldMapper<?, Campaign.CampaignBuilder>> campaignFields,
+                                                       List<FieldMapper<?, AdGroup.AdGroupBuilder>> adGroupFields) {
+        return adGroupRecordsStream
+                .limit(limit)
+                .map(record -> {
+                    final Map<String, Object> adGroupValues = fetchedValues(record, adGroupFields);
+                    adGroupValues.put(CAMPAIGN_JSON_NAME, new FetchedEntity(fetchedValues(record, campaignFields)));
+                    return new FetchedEntity(adGroupValues);
+                })
+                .toList();
+    }
 
-                    return adGroupBuilder
-                            .campaign(campaign)
-                            .build();
-                }).toList();
+    private static Map<String, Object> fetchedValues(Record rec, List<? extends FieldMapper<?, ?>> fields) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (FieldMapper<?, ?> field : fields) {
+            final Object value = rec.get(field.getDbField());
+            if (value != null) {
+                values.put(field.getJsonName(), value);
+            }
+        }
+        return values;
     }
 
     private RecordMapper<Record, AdGroup> adGroupByIdRecordMapper() {
@@ -2,11 +2,18 @@ package io.skai.template.dataaccess.dao.impl;
 
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import com.google.common.collect.Lists;
 import io.skai.template.dataaccess.dao.CampaignDao;
+import io.skai.template.dataaccess.dao.OutboxDao;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
 import io.skai.template.dataaccess.entities.FieldMapper;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.OutboxEvent;
 import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import io.skai.template.dataaccess.table.AdGroupTable;
 import io.skai.template.dataaccess.table.CampaignTable;
 import io.skai.template.services.FieldMapperService;
@@ -15,15 +22,29 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep3;
 import org.jooq.Record;
+import org.jooq.Record3;
+import org.jooq.Record4;
+import org.jooq.Row2;
+import org.jooq.Select;
+import org.jooq.Table;
 import org.jooq.TableField;
+import org.jooq.impl.DSL;
 import org.jooq.lambda.Seq;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,11 +53,18 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class CampaignDaoImpl implements CampaignDao {
 
+    private static final int UPSERT_BATCH_SIZE = 500;
+    private static final String AD_GROUPS_JSON_NAME = "ad_groups";
+    private static final String REQUESTED_TABLE = "requested";
+    private static final String POSITION_COLUMN = "position";
+
     private final DSLContext dslContext;
     private final FieldMapperService fieldMapperService;
+    private final OutboxDao outboxDao;
     private final FilterQueryService filterQueryService;
 
     @Override
+    @Transactional
     public long create(Campaign campaign) {
         log.info("Create campaign : {}", campaign);
         dslContext.insertInto(
@@ -49,7 +77,50 @@ public class CampaignDaoImpl implements CampaignDao {
                 campaign.getKsName(),
                 campaign.getStatus().name()
         ).execute();
-        return dslContext.lastID().longValue();
+        final long id = dslContext.lastID().longValue();
+        outboxDao.insert(OutboxEvent.AggregateType.CAMPAIGN, OutboxEvent.EventType.CREATED, id, campaign);
+        return id;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> createAll(List<Campaign> campaigns) {
+        log.info("Create {} campaigns", campaigns.size());
+        InsertValuesStep3<Record, String, String, String> insert = dslContext.insertInto(
+                CampaignTable.TABLE,
+                CampaignTable.TABLE.name,
+                CampaignTable.TABLE.ksName,
+                CampaignTable.TABLE.status
+        );
+        for (Campaign campaign : campaigns) {
+            insert = insert.values(campaign.getName(), campaign.getKsName(), campaign.getStatus().name());
+        }
+        insert.execute();
+        // Auto-increment ids of a multi-row INSERT are only consecutive under some innodb_autoinc_lock_mode settings,
+        // so the ids are read back by the unique (ks_name, name) key inside the same transaction.
+        final Map<List<String>, Long> idsByNaturalKey = findIdsByNaturalKey(campaigns);
+        final Map<Long, Campaign> createdCampaigns = new LinkedHashMap<>();
+        for (Campaign campaign : campaigns) {
+            createdCampaigns.put(idsByNaturalKey.get(naturalKey(campaign.getKsName(), campaign.getName())), campaign);
+        }
+        outboxDao.insertAll(OutboxEvent.AggregateType.CAMPAIGN, OutboxEvent.EventType.CREATED, createdCampaigns);
+        return List.copyOf(createdCampaigns.keySet());
+    }
+
+    private Map<List<String>, Long> findIdsByNaturalKey(List<Campaign> campaigns) {
+        final List<Row2<String, String>> naturalKeys = campaigns.stream()
+                .map(campaign -> DSL.row(campaign.getKsName(), campaign.getName()))
+                .toList();
+        return dslContext.select(CampaignTable.TABLE.id, CampaignTable.TABLE.ksName, CampaignTable.TABLE.name)
+                .from(CampaignTable.TABLE)
+                .where(DSL.row(CampaignTable.TABLE.ksName, CampaignTable.TABLE.name).in(naturalKeys))
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(campaignRec -> naturalKey(campaignRec.value2(), campaignRec.value3()), Record3::value1));
+    }
+
+    private static List<String> naturalKey(String ksName, String name) {
+        return List.of(ksName, name);
     }
 
     @Override
@@ -69,28 +140,117 @@ public class CampaignDaoImpl implements CampaignDao {
     }
 
     @Override
-    public long update(Campaign campaign) {
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        log.info("Searching existing campaigns in DB by ids : {}", ids);
+        return dslContext.select(CampaignTable.TABLE.id)
+                .from(CampaignTable.TABLE)
+                .where(CampaignTable.TABLE.id.in(ids))
+                .fetchSet(CampaignTable.TABLE.id);
+    }
+
+    @Override
+    @Transactional
+    public UpdateResult update(Campaign campaign) {
         log.info("Updating campaign in DB with id: {}", campaign.getId());
-        return dslContext
+        final long updatedRows = dslContext
+                .update(CampaignTable.TABLE)
+                .set(CampaignTable.TABLE.name, campaign.getName())
+                .set(CampaignTable.TABLE.ksName, campaign.getKsName())
+                .set(CampaignTable.TABLE.status, campaign.getStatus().name())
+                .where(CampaignTable.TABLE.id.eq(campaign.getId()))
+                .and(isChanged(campaign))
+                .execute();
+        addToOutbox(updatedRows, OutboxEvent.EventType.UPDATED, campaign.getId(), campaign);
+        return updateResult(updatedRows, campaign.getId());
+    }
+
+    @Override
+    @Transactional
+    public UpdateResult update(Campaign campaign, LocalDateTime expectedLastUpdated) {
+        log.info("Updating campaign in DB with id: {} and last updated: {}", campaign.getId(), expectedLastUpdated);
+        final long updatedRows = dslContext
                 .update(CampaignTable.TABLE)
                 .set(CampaignTable.TABLE.name, campaign.getName())
                 .set(CampaignTable.TABLE.ksName, campaign.getKsName())
                 .set(CampaignTable.TABLE.status, campaign.getStatus().name())
                 .where(CampaignTable.TABLE.id.eq(campaign.getId()))
+                .and(CampaignTable.TABLE.lastUpdated.eq(expectedLastUpdated))
+                .and(isChanged(campaign))
                 .execute();
+        addToOutbox(updatedRows, OutboxEvent.EventType.UPDATED, campaign.getId(), campaign);
+        return updateResult(updatedRows, campaign.getId());
+    }
+
+    /**
+     * Reads last_updated with a locking read, so the value is the one this transaction wrote, or the latest committed
+     * one when nothing changed, and no other write can land before the commit.
+     */
+    private UpdateResult updateResult(long changedRows, long campaignId) {
+        final LocalDateTime lastUpdated = dslContext.select(CampaignTable.TABLE.lastUpdated)
+                .from(CampaignTable.TABLE)
+                .where(CampaignTable.TABLE.id.eq(campaignId))
+                .forUpdate()
+                .fetchOne(CampaignTable.TABLE.lastUpdated);
+        return new UpdateResult(changedRows, lastUpdated);
+    }
+
+    private long addToOutbox(long changedRows, OutboxEvent.EventType eventType, long campaignId, Campaign campaign) {
+        if (changedRows > 0) {
+            outboxDao.insert(OutboxEvent.AggregateType.CAMPAIGN, eventType, campaignId, campaign);
+        }
+        return changedRows;
+    }
+
+    private static Condition isChanged(Campaign campaign) {
+        return CampaignTable.TABLE.name.isDistinctFrom(campaign.getName())
+                .or(CampaignTable.TABLE.ksName.isDistinctFrom(campaign.getKsName()))
+                .or(CampaignTable.TABLE.status.isDistinctFrom(campaign.getStatus().name()));
     }
 
     @Override
+    @Transactional
     public long deleteById(long id) {
         log.info("Deleting campaign in DB with id: {}", id);
-        return dslContext.update(CampaignTable.TABLE)
+        final long deletedRows = dslContext.update(CampaignTable.TABLE)
                 .set(CampaignTable.TABLE.status, Status.DELETED.name())
                 .where(CampaignTable.TABLE.id.eq(id))
                 .execute();
+        return addToOutbox(deletedRows, OutboxEvent.EventType.DELETED, id, null);
+    }
+
+    /**
+     * Rows are matched to existing campaigns by the database itself, through a join on the unique (ks_name, name)
+     * index columns, so ids come back under the same collation rules that decide a duplicate key. Two requested rows
+     * resolving to the same campaign are rejected, and only inserted or changed campaigns reach the outbox.
+     */
+    @Override
+    @Transactional
+    public List<Long> upsert(List<Campaign> campaigns) {
+        log.info("Upserting {} campaigns in DB by ks name and name", campaigns.size());
+        final List<Long> ids = new ArrayList<>(campaigns.size());
+        final Map<Long, Campaign> changedCampaigns = new LinkedHashMap<>();
+        Lists.partition(campaigns, UPSERT_BATCH_SIZE).forEach(batch -> {
+            final Table<Record4<Integer, String, String, String>> requested = requestedCampaigns(batch);
+            final Map<Integer, Record3<Integer, Long, String>> existing = fetchByRequestedPosition(requested);
+            upsertBatch(requested);
+            final Map<Integer, Record3<Integer, Long, String>> upserted = fetchByRequestedPosition(requested);
+            for (int position = 0; position < batch.size(); position++) {
+                final Campaign campaign = batch.get(position);
+                final long id = upserted.get(position).value2();
+                final Record3<Integer, Long, String> previous = existing.get(position);
+                if (previous == null || !previous.value3().equals(campaign.getStatus().name())) {
+                    changedCampaigns.put(id, campaign);
+                }
+                ids.add(id);
+            }
+        });
+        rejectDuplicateNaturalKeys(ids);
+        outboxDao.insertAll(OutboxEvent.AggregateType.CAMPAIGN, OutboxEvent.EventType.UPSERTED, changedCampaigns);
+        return ids;
     }
 
     @Override
-    public List<Campaign> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest) {
+    public List<FetchedEntity> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest) {
         log.info("Fetch campaign with fetch request: {}", apiFetchRequest);
 
         final List<QueryFilter<List<String>>> queryFilters = apiFetchRequest.getFilters();
@@ -121,37 +281,95 @@ public class CampaignDaoImpl implements CampaignDao {
         return getFetchResponseResult(campaignsStream, limit, campaignFields, adGroupFields);
     }
 
-    private List<Campaign> getFetchResponseResult(Stream<Record> campaignRecordsStream,
-                                                  long limit,
-                                                  List<FieldMapper<?, Campaign.CampaignBuilder>> campaignFields,
-                                                  List<FieldMapper<?, AdGroup.AdGroupBuilder>> adGroupFields) {
-        final Map<Long, List<Record>> groupOfCampaignRecords = campaignRecordsStream.collect(Collectors.groupingBy(record -> record.get(CampaignTable.TABLE.id)));
+    private static Table<Record4<Integer, String, String, String>> requestedCampaigns(List<Campaign> campaigns) {
+        Select<Record4<Integer, String, String, String>> requested = null;
+        for (int position = 0; position < campaigns.size(); position++) {
+            final Campaign campaign = campaigns.get(position);
+            final Select<Record4<Integer, String, String, String>> row = DSL.select(
+                    DSL.val(position).as(POSITION_COLUMN),
+                    DSL.val(campaign.getName()).as(CampaignTable.TABLE.name.getName()),
+                    DSL.val(campaign.getKsName()).as(CampaignTable.TABLE.ksName.getName()),
+                    DSL.val(campaign.getStatus().name()).as(CampaignTable.TABLE.status.getName()));
+            requested = requested == null ? row : requested.unionAll(row);
+        }
+        return requested.asTable(REQUESTED_TABLE);
+    }
 
-        final Campaign.CampaignBuilder campaignBuilder = Campaign.builder();
-        return groupOfCampaignRecords.entrySet().stream()
-                .limit(limit)
-                .map(entry -> {
+    /**
+     * INSERT ... SELECT from the requested rows lets ON DUPLICATE KEY UPDATE read the new status from the derived
+     * table, instead of the VALUES() function that MySQL 8.0.20 deprecates, and still runs on MySQL 5.7.
+     */
+    private void upsertBatch(Table<Record4<Integer, String, String, String>> requested) {
+        final Field<String> requestedStatus = requested.field(CampaignTable.TABLE.status.getName(), String.class);
+        dslContext.insertInto(
+                        CampaignTable.TABLE,
+                        CampaignTable.TABLE.name,
+                        CampaignTable.TABLE.ksName,
+                        CampaignTable.TABLE.status
+                ).select(DSL.select(
+                                requested.field(CampaignTable.TABLE.name.getName(), String.class),
+                                requested.field(CampaignTable.TABLE.ksName.getName(), String.class),
+                                requestedStatus)
+                        .from(requested))
+                .onDuplicateKeyUpdate()
+                .set(CampaignTable.TABLE.status, requestedStatus)
+                .execute();
+    }
 
-                            final Record campaignRecord = entry.getValue().get(0);
-                            campaignFields.forEach(field -> field.getValueApplier().apply(campaignBuilder, campaignRecord));
+    private Map<Integer, Record3<Integer, Long, String>> fetchByRequestedPosition(Table<Record4<Integer, String, String, String>> requested) {
+        final Field<Integer> position = requested.field(POSITION_COLUMN, Integer.class);
+        return dslContext.select(position, CampaignTable.TABLE.id, CampaignTable.TABLE.status)
+                .from(requested)
+                .join(CampaignTable.TABLE)
+                .on(CampaignTable.TABLE.ksName.eq(requested.field(CampaignTable.TABLE.ksName.getName(), String.class)))
+                .and(CampaignTable.TABLE.name.eq(requested.field(CampaignTable.TABLE.name.getName(), String.class)))
+                .fetchMap(position);
+    }
+
+    private static void rejectDuplicateNaturalKeys(List<Long> ids) {
+        final Map<Long, Integer> firstPositions = new HashMap<>();
+        final List<FieldError> fieldErrors = new ArrayList<>();
+        for (int position = 0; position < ids.size(); position++) {
+            final Integer firstPosition = firstPositions.putIfAbsent(ids.get(position), position);
+            if (firstPosition != null) {
+                fieldErrors.add(new FieldError("name", "Campaign at position " + position
+                        + " has the same ks_name and name as the campaign at position " + firstPosition + "."));
+            }
+        }
+        if (!fieldErrors.isEmpty()) {
+            throw new InvalidRequestException(fieldErrors);
+        }
+    }
 
-                            final List<AdGroup> adGroups = entry.getValue()
-                                    .stream()
-                                    .filter(rec -> adGroupFields.stream().noneMatch(field -> rec.get(field.getDbField()) == null))
-                                    .map(rec -> {
-                                        final AdGroup.AdGroupBuilder adGroupBuilder = AdGroup.builder();
+    private List<FetchedEntity> getFetchResponseResult(Stream<Record> campaignRecordsStream,
+                                                       long limit,
+                                                       List<FieldMapper<?, Campaign.CampaignBuilder>> campaignFields,
+                                                       List<FieldMapper<?, AdGroup.AdGroupBuilder>> adGroupFields) {
+        final Map<Long, List<Record>> groupOfCampaignRecords = campaignRecordsStream.collect(Collectors.groupingBy(record -> record.get(CampaignTable.TABLE.id)));
 
-                                        adGroupFields.forEach(field -> {
-                                            field.getValueApplier().apply(adGroupBuilder, rec);
-                                        });
-                                        return adGroupBuilder.build();
-                                    }).toList();
+        return groupOfCampaignRecords.values().stream()
+                .limit(limit)
+                .map(campaignRecords -> {
+                    final List<FetchedEntity> adGroups = campaignRecords.stream()
+                            .filter(rec -> adGroupFields.stream().noneMatch(field -> rec.get(field.getDbField()) == null))
+                            .map(rec -> new FetchedEntity(fetchedValues(rec, adGroupFields)))
+                            .toList();
 
-                            campaignBuilder.adGroups(adGroups);
+                    final Map<String, Object> campaignValues = fetchedValues(campaignRecords.get(0), campaignFields);
+                    campaignValues.put(AD_GROUPS_JSON_NAME, adGroups);
+                    return new FetchedEntity(campaignValues);
+                }).toList();
+    }
 
-                            return campaignBuilder.build();
-                        }
-                ).toList();
+    private static Map<String, Object> fetchedValues(Record rec, List<? extends FieldMapper<?, ?>> fields) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (FieldMapper<?, ?> field : fields) {
+            final Object value = rec.get(field.getDbField());
+            if (value != null) {
+                values.put(field.getJsonName(), value);
+            }
+        }
+        return values;
     }
 
     private List<TableField<Record, ?>> getFetchSelectFields(List<FieldMapper<?, Campaign.CampaignBuilder>> campaignFields,
@@ -0,0 +1,110 @@
+package io.skai.template.dataaccess.dao.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import io.skai.template.dataaccess.dao.OutboxDao;
+import io.skai.template.dataaccess.entities.OutboxEvent;
+import io.skai.template.dataaccess.table.OutboxTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep4;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxDaoImpl implements OutboxDao {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final String RELAY_LOCK_NAME = "outbox_relay";
+
+    private final DSLContext dslContext;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void insert(OutboxEvent.AggregateType aggregateType, OutboxEvent.EventType eventType, long aggregateId, Object payload) {
+        insertAll(aggregateType, eventType, Collections.singletonMap(aggregateId, payload));
+    }
+
+    @Override
+    public void insertAll(OutboxEvent.AggregateType aggregateType, OutboxEvent.EventType eventType, Map<Long, ?> payloadsByAggregateId) {
+        if (payloadsByAggregateId.isEmpty()) {
+            return;
+        }
+        log.debug("Adding {} {} {} events to outbox", payloadsByAggregateId.size(), aggregateType, eventType);
+        Lists.partition(new ArrayList<>(payloadsByAggregateId.entrySet()), INSERT_BATCH_SIZE)
+                .forEach(batch -> insertBatch(aggregateType, eventType, batch));
+    }
+
+    private void insertBatch(OutboxEvent.AggregateType aggregateType, OutboxEvent.EventType eventType, List<? extends Map.Entry<Long, ?>> batch) {
+        InsertValuesStep4<Record, String, Long, String, String> insert = dslContext.insertInto(
+                OutboxTable.TABLE,
+                OutboxTable.TABLE.aggregateType,
+                OutboxTable.TABLE.aggregateId,
+                OutboxTable.TABLE.eventType,
+                OutboxTable.TABLE.payload
+        );
+        for (Map.Entry<Long, ?> entry : batch) {
+            insert = insert.values(aggregateType.name(), entry.getKey(), eventType.name(), serialize(entry.getValue()));
+        }
+        insert.execute();
+    }
+
+    @Override
+    public boolean tryLockRelay() {
+        final Integer acquired = dslContext.fetchValue(
+                DSL.field("GET_LOCK({0}, 0)", Integer.class, DSL.val(RELAY_LOCK_NAME)));
+        return acquired != null && acquired == 1;
+    }
+
+    @Override
+    public void unlockRelay() {
+        dslContext.fetchValue(DSL.field("RELEASE_LOCK({0})", Integer.class, DSL.val(RELAY_LOCK_NAME)));
+    }
+
+    @Override
+    public List<OutboxEvent> lockOldest(int limit) {
+        return dslContext.selectFrom(OutboxTable.TABLE)
+                .orderBy(OutboxTable.TABLE.id)
+                .limit(limit)
+                .forUpdate()
+                .skipLocked()
+                .fetch(outboxRec -> OutboxEvent.builder()
+                        .id(outboxRec.get(OutboxTable.TABLE.id))
+                        .aggregateType(OutboxEvent.AggregateType.valueOf(outboxRec.get(OutboxTable.TABLE.aggregateType)))
+                        .aggregateId(outboxRec.get(OutboxTable.TABLE.aggregateId))
+                        .eventType(OutboxEvent.EventType.valueOf(outboxRec.get(OutboxTable.TABLE.eventType)))
+                        .payload(outboxRec.get(OutboxTable.TABLE.payload))
+                        .createDate(outboxRec.get(OutboxTable.TABLE.createDate))
+                        .build());
+    }
+
+    @Override
+    public long deleteByIds(Collection<Long> ids) {
+        log.debug("Deleting {} published events from outbox", ids.size());
+        return dslContext.deleteFrom(OutboxTable.TABLE)
+                .where(OutboxTable.TABLE.id.in(ids))
+                .execute();
+    }
+
+    private String serialize(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload, e);
+        }
+    }
+}
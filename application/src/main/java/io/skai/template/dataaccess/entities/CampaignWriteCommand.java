@@ -0,0 +1,3 @@
+package io.skai.template.dataaccess.entities;
+
+public record CampaignWriteCommand(String operationId, Campaign campaign) { }
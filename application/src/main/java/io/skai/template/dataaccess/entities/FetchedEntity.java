@@ -0,0 +1,31 @@
+package io.skai.template.dataaccess.entities;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.kenshoo.openplatform.apimodel.OpenPlatformDto;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A sparse fetch result. The DAOs put only the selected, non null fields in, under the same json names as
+ * {@link Campaign} and {@link AdGroup}, and in select order, without building either. A nested value is another
+ * {@link FetchedEntity} or a list of them.
+ */
+@ToString
+@EqualsAndHashCode
+public class FetchedEntity implements OpenPlatformDto {
+
+    private final Map<String, Object> values;
+
+    public FetchedEntity(Map<String, Object> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+}
@@ -10,11 +10,17 @@ import java.util.function.BiFunction;
 public class FieldMapper<T, BUILDER> {
 
     String name;
+    String jsonName;
     TableField<Record, T> dbField;
     BiFunction<BUILDER, Record, BUILDER> valueApplier;
 
     public FieldMapper(String name, TableField<Record, T> dbField, BiFunction<BUILDER, T, BUILDER> valueApplier) {
+        this(name, name, dbField, valueApplier);
+    }
+
+    public FieldMapper(String name, String jsonName, TableField<Record, T> dbField, BiFunction<BUILDER, T, BUILDER> valueApplier) {
         this.name = name;
+        this.jsonName = jsonName;
         this.dbField = dbField;
         this.valueApplier = (builder, record) -> valueApplier.apply(builder, record.get(dbField));
     }
@@ -0,0 +1,17 @@
+package io.skai.template.dataaccess.entities;
+
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InvalidRequestException extends RuntimeException {
+
+    private final List<FieldError> fieldErrors;
+
+    public InvalidRequestException(List<FieldError> fieldErrors) {
+        this.fieldErrors = fieldErrors;
+    }
+
+}
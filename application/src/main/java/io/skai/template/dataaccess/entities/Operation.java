@@ -0,0 +1,20 @@
+package io.skai.template.dataaccess.entities;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.kenshoo.openplatform.apimodel.OpenPlatformDto;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Operation implements OpenPlatformDto {
+
+    String id;
+    OperationStatus status;
+    @JsonProperty("entity_id")
+    Long entityId;
+    String error;
+
+}
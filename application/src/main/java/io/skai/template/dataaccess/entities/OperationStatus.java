@@ -0,0 +1,7 @@
+package io.skai.template.dataaccess.entities;
+
+public enum OperationStatus {
+
+    PENDING, COMPLETED, FAILED
+
+}
@@ -0,0 +1,30 @@
+package io.skai.template.dataaccess.entities;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class OutboxEvent {
+
+    Long id;
+    AggregateType aggregateType;
+    long aggregateId;
+    EventType eventType;
+    String payload;
+    LocalDateTime createDate;
+
+    public enum AggregateType {
+        CAMPAIGN,
+        AD_GROUP
+    }
+
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        UPSERTED,
+        DELETED
+    }
+}
@@ -0,0 +1,19 @@
+package io.skai.template.dataaccess.entities;
+
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class PreconditionFailedException extends RuntimeException {
+
+    private final Long entityId;
+    private final List<FieldError> fieldErrors;
+
+    public PreconditionFailedException(Long entityId, List<FieldError> fieldErrors) {
+        this.entityId = entityId;
+        this.fieldErrors = fieldErrors;
+    }
+
+}
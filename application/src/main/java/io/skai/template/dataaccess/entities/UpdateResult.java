@@ -0,0 +1,9 @@
+package io.skai.template.dataaccess.entities;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rows changed by an update, and the {@code last_updated} of the entity read in the same transaction, or null when no
+ * entity has the updated id.
+ */
+public record UpdateResult(long changedRows, LocalDateTime lastUpdated) { }
@@ -0,0 +1,27 @@
+package io.skai.template.dataaccess.table;
+
+import org.jooq.Name;
+import org.jooq.Record;
+import org.jooq.TableField;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.jooq.impl.TableImpl;
+
+import java.time.LocalDateTime;
+
+public class OutboxTable extends TableImpl<Record> {
+
+    public static final OutboxTable TABLE = new OutboxTable(DSL.name("outbox"));
+
+    public OutboxTable(Name name) {
+        super(name);
+    }
+
+    public final TableField<Record, Long> id = createField(DSL.name("id"), SQLDataType.BIGINT);
+    public final TableField<Record, String> aggregateType = createField(DSL.name("aggregate_type"), SQLDataType.VARCHAR(60));
+    public final TableField<Record, Long> aggregateId = createField(DSL.name("aggregate_id"), SQLDataType.BIGINT);
+    public final TableField<Record, String> eventType = createField(DSL.name("event_type"), SQLDataType.VARCHAR(60));
+    public final TableField<Record, String> payload = createField(DSL.name("payload"), SQLDataType.CLOB);
+    public final TableField<Record, LocalDateTime> createDate = createField(DSL.name("create_date"), SQLDataType.LOCALDATETIME(6));
+
+}
@@ -5,6 +5,7 @@ import com.kenshoo.kjobster.api.conf.BrokerCredentials;
 import com.kenshoo.kjobster.api.conf.BrokerDetails;
 import com.kenshoo.kjobster.api.conf.BrokerTopologyDetails;
 import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -12,14 +13,46 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class BrokerDetailsFactory {
 
-    public BrokerDetails getBrokerDetails(RabbitConfig rabbitConfig) {
+    private static final String RETRY_SUFFIX = ".retry.";
+    private static final String DEAD_LETTER_SUFFIX = ".dead";
+
+    public BrokerDetails getBrokerDetails(RabbitConfig rabbitConfig, RabbitConsumerConfig consumerConfig) {
+        return BrokerDetails.builder()
+                .withBrokerConnectionDetails(getBrokerConnectionDetails(rabbitConfig))
+                .withBrokerCredentials(getBrokerCredentials(rabbitConfig))
+                .withBrokerTopologyDetails(getBrokerTopologyDetails(rabbitConfig, consumerConfig))
+                .build();
+    }
+
+    /**
+     * Producers only need the exchange; each publish names its own routing key, so no consumer queue is bound here.
+     */
+    public BrokerDetails getProducerBrokerDetails(RabbitConfig rabbitConfig) {
         return BrokerDetails.builder()
                 .withBrokerConnectionDetails(getBrokerConnectionDetails(rabbitConfig))
                 .withBrokerCredentials(getBrokerCredentials(rabbitConfig))
-                .withBrokerTopologyDetails(getBrokerTopologyDetails(rabbitConfig))
+                .withBrokerTopologyDetails(BrokerTopologyDetails.builder()
+                        .withTopic(rabbitConfig.getExchange())
+                        .build())
                 .build();
     }
 
+    public String getRetryQueueName(RabbitConsumerConfig consumerConfig, int attempt) {
+        return consumerConfig.getQueueName() + RETRY_SUFFIX + attempt;
+    }
+
+    public String getRetryRoutingKey(RabbitConsumerConfig consumerConfig, int attempt) {
+        return consumerConfig.getBindingKey() + RETRY_SUFFIX + attempt;
+    }
+
+    public String getDeadLetterQueueName(RabbitConsumerConfig consumerConfig) {
+        return consumerConfig.getQueueName() + DEAD_LETTER_SUFFIX;
+    }
+
+    public String getDeadLetterRoutingKey(RabbitConsumerConfig consumerConfig) {
+        return consumerConfig.getBindingKey() + DEAD_LETTER_SUFFIX;
+    }
+
     private BrokerConnectionDetails getBrokerConnectionDetails(RabbitConfig brokerConfig) {
         return new BrokerConnectionDetails(brokerConfig.getHost(), brokerConfig.getPort());
     }
@@ -28,11 +61,11 @@ public class BrokerDetailsFactory {
         return new BrokerCredentials(brokerConfig.getUsername(), brokerConfig.getPassword());
     }
 
-    private BrokerTopologyDetails getBrokerTopologyDetails(RabbitConfig queue) {
+    private BrokerTopologyDetails getBrokerTopologyDetails(RabbitConfig rabbitConfig, RabbitConsumerConfig consumerConfig) {
         return BrokerTopologyDetails.builder()
-                .withTopic(queue.getExchange())
-                .withQueueName(queue.getQueueName())
-                .withBindingKey(queue.getBindingKey())
+                .withTopic(rabbitConfig.getExchange())
+                .withQueueName(consumerConfig.getQueueName())
+                .withBindingKey(consumerConfig.getBindingKey())
                 .build();
     }
 }
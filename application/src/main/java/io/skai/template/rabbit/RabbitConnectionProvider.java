@@ -0,0 +1,52 @@
+package io.skai.template.rabbit;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import io.skai.template.config.rabbit.RabbitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RabbitConnectionProvider implements DisposableBean {
+
+    private static final String CONNECTION_NAME = "template-management";
+
+    private final RabbitConfig rabbitConfig;
+
+    private Connection connection;
+
+    public synchronized Connection getConnection() throws IOException, TimeoutException {
+        if (connection == null || !connection.isOpen()) {
+            final ConnectionFactory connectionFactory = new ConnectionFactory();
+            connectionFactory.setHost(rabbitConfig.getHost());
+            connectionFactory.setPort(rabbitConfig.getPort());
+            connectionFactory.setUsername(rabbitConfig.getUsername());
+            connectionFactory.setPassword(rabbitConfig.getPassword());
+            connectionFactory.setAutomaticRecoveryEnabled(true);
+            connection = connectionFactory.newConnection(CONNECTION_NAME);
+            log.info("Opened management connection to rabbit : {}:{}", rabbitConfig.getHost(), rabbitConfig.getPort());
+        }
+        return connection;
+    }
+
+    public long getMessageCount(String queueName) throws IOException, TimeoutException {
+        try (Channel channel = getConnection().createChannel()) {
+            return channel.queueDeclarePassive(queueName).getMessageCount();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (connection != null && connection.isOpen()) {
+            connection.close();
+        }
+    }
+}
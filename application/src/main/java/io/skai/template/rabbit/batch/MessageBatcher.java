@@ -0,0 +1,141 @@
+package io.skai.template.rabbit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * {@link #submit} blocks the calling worker until the batch holding its item is flushed, so handlers ack only after a successful flush.
+ * A submit that is not flushed within the batch window plus one minute fails, so a stuck flusher fails messages instead of
+ * parking workers forever.
+ */
+@Slf4j
+public class MessageBatcher<T> implements AutoCloseable {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final Duration FLUSH_TIMEOUT = Duration.ofMinutes(1);
+
+    private final String name;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final Consumer<List<T>> flusher;
+    private final BlockingQueue<PendingItem<T>> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Duration submitTimeout;
+    private final Thread flushThread;
+    private final Object lifecycleLock = new Object();
+
+    private volatile boolean running = true;
+
+    public MessageBatcher(String name, int maxBatchSize, Duration maxDelay, Consumer<List<T>> flusher) {
+        this.name = name;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelay = maxDelay;
+        this.flusher = flusher;
+        this.submitTimeout = maxDelay.plus(FLUSH_TIMEOUT);
+        this.flushThread = new Thread(this::flushLoop, name + "-batcher");
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    public void submit(T item) {
+        final PendingItem<T> pendingItem = new PendingItem<>(item, new CompletableFuture<>());
+        synchronized (lifecycleLock) {
+            if (!running) {
+                throw new IllegalStateException("Batcher " + name + " is closed");
+            }
+            waiting.incrementAndGet();
+            queue.add(pendingItem);
+        }
+        try {
+            pendingItem.result().get(submitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Batcher " + name + " failed to flush", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Batcher " + name + " did not flush within " + submitTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batcher " + name + " to flush", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Rejects further submits under the same lock {@link #submit} enqueues under, so every accepted item is either
+     * flushed by the draining flush thread or failed here, and no submitter is left waiting.
+     */
+    @Override
+    public void close() {
+        synchronized (lifecycleLock) {
+            running = false;
+        }
+        try {
+            flushThread.join(maxDelay.toMillis() + POLL_TIMEOUT_MILLIS * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending(new IllegalStateException("Batcher " + name + " is closed"));
+    }
+
+    private void flushLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingItem<T> first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    flush(collectBatch(first));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<PendingItem<T>> collectBatch(PendingItem<T> first) throws InterruptedException {
+        final List<PendingItem<T>> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        final long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatchSize && batch.size() < waiting.get()) {
+            final PendingItem<T> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void flush(List<PendingItem<T>> batch) {
+        final List<T> items = batch.stream().map(PendingItem::item).toList();
+        try {
+            flusher.accept(items);
+            batch.forEach(pendingItem -> pendingItem.result().complete(null));
+        } catch (RuntimeException e) {
+            log.error("Batcher : {} failed to flush {} items", name, items.size(), e);
+            batch.forEach(pendingItem -> pendingItem.result().completeExceptionally(e));
+        }
+    }
+
+    private void failPending(RuntimeException e) {
+        final List<PendingItem<T>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(pendingItem -> pendingItem.result().completeExceptionally(e));
+    }
+
+    private record PendingItem<T>(T item, CompletableFuture<Void> result) {
+    }
+}
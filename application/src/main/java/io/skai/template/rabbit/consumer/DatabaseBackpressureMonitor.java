@@ -0,0 +1,104 @@
+package io.skai.template.rabbit.consumer;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.skai.template.config.rabbit.ConsumerBackpressureConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pauses the consumers that opted in with {@code databaseBackpressure} once the Hikari pool has been saturated for
+ * {@code pauseAfterSaturatedChecks} checks in a row, so message workers stop queueing for connections that HTTP
+ * requests need, and resumes them once the pool has drained below a lower threshold. Consumers that never touch the
+ * database keep running. Checks run on a scheduler thread of their own, so a slow outbox relay batch or autoscaler
+ * round on the shared scheduling pool cannot delay a pause, and consumers shut down in the background when paused.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "consumer-backpressure", name = "enabled", havingValue = "true")
+public class DatabaseBackpressureMonitor implements InitializingBean, DisposableBean {
+
+    private static final String PAUSED_METRIC_NAME = new MetricNameBuilder(DatabaseBackpressureMonitor.class).name("paused");
+    private static final String PAUSES_METRIC_NAME = new MetricNameBuilder(DatabaseBackpressureMonitor.class).name("pauses");
+
+    private final List<KjobsterConsumer> consumers;
+    private final HikariDataSource hikariDataSource;
+    private final ConsumerBackpressureConfig backpressureConfig;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean paused;
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    private int saturatedChecks;
+
+    public DatabaseBackpressureMonitor(List<KjobsterConsumer> consumers,
+                                       DataSource dataSource,
+                                       ConsumerBackpressureConfig backpressureConfig,
+                                       MeterRegistry meterRegistry) throws SQLException {
+        this.consumers = consumers.stream()
+                .filter(KjobsterConsumer::hasDatabaseBackpressure)
+                .toList();
+        this.hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+        this.backpressureConfig = backpressureConfig;
+        this.meterRegistry = meterRegistry;
+        this.paused = meterRegistry.gauge(PAUSED_METRIC_NAME, new AtomicBoolean(), flag -> flag.get() ? 1 : 0);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("database-backpressure-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::check, Instant.now().plus(backpressureConfig.getInterval()), backpressureConfig.getInterval());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    public void check() {
+        final HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        final int activeConnections = pool.getActiveConnections();
+        final int awaitingThreads = pool.getThreadsAwaitingConnection();
+        final double utilization = (double) activeConnections / hikariDataSource.getMaximumPoolSize();
+
+        saturatedChecks = isSaturated(utilization, awaitingThreads) ? saturatedChecks + 1 : 0;
+
+        if (!paused.get() && saturatedChecks >= backpressureConfig.getPauseAfterSaturatedChecks()) {
+            log.warn("Database pool saturated for {} checks with {} active connections and {} awaiting threads, pausing consumers",
+                    saturatedChecks, activeConnections, awaitingThreads);
+            consumers.forEach(KjobsterConsumer::pause);
+            paused.set(true);
+            meterRegistry.counter(PAUSES_METRIC_NAME).increment();
+        } else if (paused.get() && isRecovered(utilization, awaitingThreads)) {
+            log.info("Database pool recovered with {} active connections, resuming consumers", activeConnections);
+            consumers.forEach(KjobsterConsumer::resume);
+            paused.set(false);
+        }
+    }
+
+    boolean isSaturated(double utilization, int awaitingThreads) {
+        return utilization >= backpressureConfig.getPauseAboveUtilization()
+                || awaitingThreads >= backpressureConfig.getPauseAboveAwaitingThreads();
+    }
+
+    boolean isRecovered(double utilization, int awaitingThreads) {
+        return awaitingThreads == 0 && utilization <= backpressureConfig.getResumeBelowUtilization();
+    }
+}
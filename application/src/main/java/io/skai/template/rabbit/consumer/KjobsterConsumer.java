@@ -3,40 +3,99 @@ package io.skai.template.rabbit.consumer;
 import com.kenshoo.kjobster.api.Consumer;
 import com.kenshoo.kjobster.api.JobsterApi;
 import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
 import com.kenshoo.kjobster.api.conf.ConsumerConfiguration;
 import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
 import io.skai.template.rabbit.BrokerDetailsFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.context.SmartLifecycle;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 @Slf4j
 @RequiredArgsConstructor
 public class KjobsterConsumer implements SmartLifecycle, BeanNameAware {
 
     private final BrokerDetailsFactory factory;
     private final RabbitConfig rabbitConfig;
+    private final RabbitConsumerConfig consumerConfig;
     private final JobsterApi jobsterApi;
     private final MessageHandler messageHandler;
 
+    private final LongAdder handledMessages = new LongAdder();
+    private final LongAdder handlingNanos = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object drainMonitor = new Object();
+
     private Consumer consumer;
-    private boolean isRunning;
+    private CompletableFuture<Void> pausing = CompletableFuture.completedFuture(null);
+    private volatile boolean isRunning;
+    private volatile boolean paused;
     private String name;
+    private int workers;
 
     @Override
-    public void start() {
-        ConsumerConfiguration consumerConfiguration = getConsumerConfiguration();
-        consumer = jobsterApi.startConsumer(consumerConfiguration, messageHandler);
+    public synchronized void start() {
+        workers = consumerConfig.getNumOfListeners();
+        consumer = jobsterApi.startConsumer(getConsumerConfiguration(workers), getMessageHandler());
         isRunning = true;
-        log.info("Consumer : {} started successfully", name);
+        log.info("Consumer : {} started successfully with {} workers", name, workers);
     }
 
     @Override
     public void stop() {
-        consumer.shutDown();
-        isRunning = false;
-        log.info("Consumer : {} stopped successfully", name);
+        final CountDownLatch stopped = new CountDownLatch(1);
+        stop(stopped::countDown);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Shuts the consumer down on a separate thread and runs the callback once in-flight messages are handled,
+     * so the lifecycle processor can drain all consumers in parallel instead of waiting out the shutdown timeout.
+     */
+    @Override
+    public void stop(Runnable callback) {
+        final Consumer stoppingConsumer;
+        final CompletableFuture<Void> pendingPause;
+        synchronized (this) {
+            if (!isRunning) {
+                callback.run();
+                return;
+            }
+            isRunning = false;
+            stoppingConsumer = paused ? null : consumer;
+            pendingPause = pausing;
+            paused = false;
+        }
+        final Thread drainThread = new Thread(() -> {
+            try {
+                if (stoppingConsumer != null) {
+                    stoppingConsumer.shutDown();
+                }
+                pendingPause.join();
+                awaitInFlight();
+                log.info("Consumer : {} stopped successfully", name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Consumer : {} stopped with {} messages in flight", name, inFlight.get());
+            } finally {
+                callback.run();
+            }
+        }, name + "-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
     }
 
     @Override
@@ -44,15 +103,141 @@ public class KjobsterConsumer implements SmartLifecycle, BeanNameAware {
         return isRunning;
     }
 
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
     @Override
     public void setBeanName(String name) {
         this.name = name;
     }
 
-    private ConsumerConfiguration getConsumerConfiguration() {
+    public String getName() {
+        return name;
+    }
+
+    public String getQueueName() {
+        return consumerConfig.getQueueName();
+    }
+
+    public int getMinWorkers() {
+        return consumerConfig.getNumOfListeners();
+    }
+
+    public int getMaxWorkers() {
+        return Math.max(consumerConfig.getNumOfListeners(), consumerConfig.getMaxNumOfListeners());
+    }
+
+    public boolean hasDatabaseBackpressure() {
+        return consumerConfig.isDatabaseBackpressure();
+    }
+
+    public boolean isAutoscaled() {
+        return getMaxWorkers() > getMinWorkers();
+    }
+
+    public synchronized int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Starts a consumer with the new worker count before shutting the old one down, so the queue is never left without listeners.
+     */
+    public synchronized void resize(int newWorkers) {
+        if (!isRunning || newWorkers == workers) {
+            return;
+        }
+        if (paused) {
+            log.info("Consumer : {} is paused, will resume with {} workers instead of {}", name, newWorkers, workers);
+            workers = newWorkers;
+            return;
+        }
+        final Consumer previousConsumer = consumer;
+        consumer = jobsterApi.startConsumer(getConsumerConfiguration(newWorkers), getMessageHandler());
+        previousConsumer.shutDown();
+        log.info("Consumer : {} resized from {} to {} workers", name, workers, newWorkers);
+        workers = newWorkers;
+    }
+
+    /**
+     * Stops pulling messages without leaving the running lifecycle state, so {@link #resume()} can restart
+     * consumption with the current worker count. The Kjobster consumer is shut down on a separate thread, so the
+     * caller is not held while its workers finish their current messages.
+     */
+    public synchronized void pause() {
+        if (!isRunning || paused) {
+            return;
+        }
+        final Consumer pausedConsumer = consumer;
+        paused = true;
+        pausing = CompletableFuture.runAsync(() -> shutDown(pausedConsumer), runnable -> {
+            final Thread pauseThread = new Thread(runnable, name + "-pause");
+            pauseThread.setDaemon(true);
+            pauseThread.start();
+        });
+        log.info("Consumer : {} paused", name);
+    }
+
+    public synchronized void resume() {
+        if (!isRunning || !paused) {
+            return;
+        }
+        consumer = jobsterApi.startConsumer(getConsumerConfiguration(workers), getMessageHandler());
+        paused = false;
+        log.info("Consumer : {} resumed with {} workers", name, workers);
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public Optional<Duration> drainAverageLatency() {
+        final long messages = handledMessages.sumThenReset();
+        final long nanos = handlingNanos.sumThenReset();
+        return messages == 0 ? Optional.empty() : Optional.of(Duration.ofNanos(nanos / messages));
+    }
+
+    private MessageHandler getMessageHandler() {
+        return new MessageHandler() {
+            @Override
+            public MessageResponse handleMessage(String message, Optional<String> jobName) {
+                inFlight.incrementAndGet();
+                final long startNanos = System.nanoTime();
+                try {
+                    return messageHandler.handleMessage(message, jobName);
+                } finally {
+                    handlingNanos.add(System.nanoTime() - startNanos);
+                    handledMessages.increment();
+                    if (inFlight.decrementAndGet() == 0) {
+                        synchronized (drainMonitor) {
+                            drainMonitor.notifyAll();
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    private void shutDown(Consumer pausedConsumer) {
+        try {
+            pausedConsumer.shutDown();
+        } catch (RuntimeException e) {
+            log.warn("Consumer : {} failed to shut down while pausing", name, e);
+        }
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        synchronized (drainMonitor) {
+            while (inFlight.get() > 0) {
+                drainMonitor.wait();
+            }
+        }
+    }
+
+    private ConsumerConfiguration getConsumerConfiguration(int workers) {
         return ConsumerConfiguration.builder()
-                .listeningTo(factory.getBrokerDetails(rabbitConfig))
-                .withWorkers(rabbitConfig.getNumOfListeners())
+                .listeningTo(factory.getBrokerDetails(rabbitConfig, consumerConfig))
+                .withWorkers(workers)
                 .build();
     }
 }
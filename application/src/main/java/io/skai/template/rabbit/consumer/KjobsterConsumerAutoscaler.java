@@ -0,0 +1,77 @@
+package io.skai.template.rabbit.consumer;
+
+import io.skai.template.config.rabbit.ConsumerAutoscalingConfig;
+import io.skai.template.rabbit.RabbitConnectionProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "consumer-autoscaling", name = "enabled", havingValue = "true")
+public class KjobsterConsumerAutoscaler {
+
+    private final List<KjobsterConsumer> consumers;
+    private final RabbitConnectionProvider rabbitConnectionProvider;
+    private final ConsumerAutoscalingConfig autoscalingConfig;
+
+    private final Map<String, Duration> lastKnownLatencies = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastResizeNanos = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${consumer-autoscaling.interval}", initialDelayString = "${consumer-autoscaling.interval}")
+    public void autoscale() {
+        consumers.stream()
+                .filter(KjobsterConsumer::isAutoscaled)
+                .filter(KjobsterConsumer::isRunning)
+                .filter(consumer -> !consumer.isPaused())
+                .forEach(this::autoscale);
+    }
+
+    void autoscale(KjobsterConsumer consumer) {
+        final Optional<Duration> averageLatency = consumer.drainAverageLatency()
+                .or(() -> Optional.ofNullable(lastKnownLatencies.get(consumer.getName())));
+        averageLatency.ifPresent(latency -> lastKnownLatencies.put(consumer.getName(), latency));
+
+        final long queueDepth;
+        try {
+            queueDepth = rabbitConnectionProvider.getMessageCount(consumer.getQueueName());
+        } catch (Exception e) {
+            log.warn("Cannot read depth of queue : {}, skipping autoscaling of consumer : {}", consumer.getQueueName(), consumer.getName(), e);
+            return;
+        }
+
+        final int currentWorkers = consumer.getWorkers();
+        final int desiredWorkers = averageLatency
+                .map(latency -> desiredWorkers(queueDepth, latency, autoscalingConfig.getTargetDrainTime(),
+                        consumer.getMinWorkers(), consumer.getMaxWorkers()))
+                .orElse(currentWorkers);
+        log.debug("Consumer : {} queue depth : {}, average latency : {}, workers : {}, desired workers : {}",
+                consumer.getName(), queueDepth, averageLatency.orElse(null), currentWorkers, desiredWorkers);
+
+        if (desiredWorkers != currentWorkers && isCooledDown(consumer)) {
+            consumer.resize(desiredWorkers);
+            lastResizeNanos.put(consumer.getName(), System.nanoTime());
+        }
+    }
+
+    static int desiredWorkers(long queueDepth, Duration averageLatency, Duration targetDrainTime, int minWorkers, int maxWorkers) {
+        final double workSeconds = queueDepth * (averageLatency.toNanos() / 1_000_000_000d);
+        final double targetSeconds = Math.max(targetDrainTime.toNanos() / 1_000_000_000d, 0.001d);
+        final long neededWorkers = (long) Math.ceil(workSeconds / targetSeconds);
+        return (int) Math.max(minWorkers, Math.min(maxWorkers, neededWorkers));
+    }
+
+    private boolean isCooledDown(KjobsterConsumer consumer) {
+        final Long resizedAt = lastResizeNanos.get(consumer.getName());
+        return resizedAt == null || System.nanoTime() - resizedAt >= autoscalingConfig.getCooldown().toNanos();
+    }
+}
@@ -1,19 +1,122 @@
 package io.skai.template.rabbit.consumer;
 
-import com.kenshoo.kjobster.api.JobsterApi;
+import com.kenshoo.kjobster.api.MessageHandler;
 import io.skai.template.config.rabbit.RabbitConfig;
-import io.skai.template.rabbit.BrokerDetailsFactory;
-import io.skai.template.rabbit.messagehandler.ExampleMessageHandler;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class KjobsterConsumerRegistry {
-
-    @Bean(name = "exampleConsumer")
-    public KjobsterConsumer exampleConsumer(BrokerDetailsFactory factory, JobsterApi jobsterApi,
-                                            ExampleMessageHandler messageHandler,
-                                            RabbitConfig rabbitConfig) {
-        return new KjobsterConsumer(factory, rabbitConfig, jobsterApi, messageHandler);
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.rabbit.messagehandler.DedupingMessageHandler;
+import io.skai.template.rabbit.messagehandler.MeteredMessageHandler;
+import io.skai.template.rabbit.messagehandler.PartitionedMessageHandler;
+import io.skai.template.rabbit.retry.RetryingMessageHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Registers one {@link KjobsterConsumer} bean per entry of {@code rabbit.consumers}, each with its own worker pool
+ * and its handler wrapped in a {@link MeteredMessageHandler} tagged by the consumer name and, when configured, a
+ * {@link RetryingMessageHandler}, a {@link DedupingMessageHandler} and a {@link PartitionedMessageHandler}. Handlers of
+ * consumers with a {@code batchSize} get their consumer entry as a constructor argument to read the batch settings from.
+ */
+@Slf4j
+@Component
+public class KjobsterConsumerRegistry implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    private static final String RABBIT_PREFIX = "rabbit";
+    private static final String BROKER_DETAILS_FACTORY_BEAN = "brokerDetailsFactory";
+    private static final String JOBSTER_API_BEAN = "jobsterApi";
+    private static final String MESSAGE_HANDLER_BEAN_SUFFIX = "MessageHandler";
+    private static final String RETRYING_MESSAGE_HANDLER_BEAN_SUFFIX = "RetryingMessageHandler";
+    private static final String DEDUPING_MESSAGE_HANDLER_BEAN_SUFFIX = "DedupingMessageHandler";
+    private static final String PARTITIONED_MESSAGE_HANDLER_BEAN_SUFFIX = "PartitionedMessageHandler";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        final RabbitConfig rabbitConfig = Binder.get(environment)
+                .bind(RABBIT_PREFIX, RabbitConfig.class)
+                .orElseGet(RabbitConfig::new);
+
+        rabbitConfig.getConsumers().forEach(consumerConfig -> {
+            validatePartitions(consumerConfig);
+            validatePrefetch(consumerConfig);
+            if (consumerConfig.getBatchSize() > 0) {
+                registry.getBeanDefinition(consumerConfig.getHandler()).getConstructorArgumentValues()
+                        .addGenericArgumentValue(consumerConfig);
+            }
+            String messageHandlerBeanName = consumerConfig.getHandler();
+            if (consumerConfig.getPartitions() > 0) {
+                messageHandlerBeanName = registerDecorator(registry, consumerConfig.getName() + PARTITIONED_MESSAGE_HANDLER_BEAN_SUFFIX,
+                        PartitionedMessageHandler.class, messageHandlerBeanName, consumerConfig.getName(), consumerConfig.getPartitions());
+            }
+            if (consumerConfig.getDedupeTtl() != null) {
+                messageHandlerBeanName = registerDecorator(registry, consumerConfig.getName() + DEDUPING_MESSAGE_HANDLER_BEAN_SUFFIX,
+                        DedupingMessageHandler.class, messageHandlerBeanName, consumerConfig.getName(), consumerConfig.getDedupeTtl());
+            }
+            if (!consumerConfig.getRetryDelays().isEmpty()) {
+                messageHandlerBeanName = registerDecorator(registry, consumerConfig.getName() + RETRYING_MESSAGE_HANDLER_BEAN_SUFFIX,
+                        RetryingMessageHandler.class, messageHandlerBeanName, rabbitConfig, consumerConfig, consumerConfig.getRetryDelays());
+            }
+            messageHandlerBeanName = registerDecorator(registry, consumerConfig.getName() + MESSAGE_HANDLER_BEAN_SUFFIX,
+                    MeteredMessageHandler.class, messageHandlerBeanName, consumerConfig.getName());
+            registry.registerBeanDefinition(consumerConfig.getName(), BeanDefinitionBuilder
+                    .genericBeanDefinition(KjobsterConsumer.class)
+                    .addConstructorArgReference(BROKER_DETAILS_FACTORY_BEAN)
+                    .addConstructorArgValue(rabbitConfig)
+                    .addConstructorArgValue(consumerConfig)
+                    .addConstructorArgReference(JOBSTER_API_BEAN)
+                    .addConstructorArgReference(messageHandlerBeanName)
+                    .getBeanDefinition());
+            log.info("Registered consumer : {} for queue : {} with handler : {}", consumerConfig.getName(),
+                    consumerConfig.getQueueName(), consumerConfig.getHandler());
+        });
+    }
+
+    /**
+     * Every worker of a partitioned consumer waits on one lane, so workers beyond the number of lanes only hold
+     * prefetched messages without handling them.
+     */
+    private static void validatePartitions(RabbitConsumerConfig consumerConfig) {
+        final int maxWorkers = Math.max(consumerConfig.getNumOfListeners(), consumerConfig.getMaxNumOfListeners());
+        if (consumerConfig.getPartitions() > 0 && consumerConfig.getPartitions() < maxWorkers) {
+            throw new IllegalStateException("Consumer " + consumerConfig.getName() + " has " + consumerConfig.getPartitions()
+                    + " partitions but can scale to " + maxWorkers + " listeners, partitions must be at least the listener count");
+        }
+    }
+
+    private static void validatePrefetch(RabbitConsumerConfig consumerConfig) {
+        if (consumerConfig.getPrefetch() > 0) {
+            throw new IllegalStateException("Consumer " + consumerConfig.getName() + " sets prefetch " + consumerConfig.getPrefetch()
+                    + " but Kjobster consumers cannot be given a prefetch, bound unacknowledged messages with numOfListeners instead");
+        }
+    }
+
+    private static String registerDecorator(BeanDefinitionRegistry registry, String beanName,
+                                            Class<? extends MessageHandler> decoratorClass,
+                                            String delegateBeanName, Object... constructorArgs) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(decoratorClass)
+                .addConstructorArgReference(delegateBeanName)
+                .setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+        Arrays.stream(constructorArgs).forEach(builder::addConstructorArgValue);
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+        return beanName;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
     }
 }
@@ -0,0 +1,104 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.skai.template.config.rabbit.WriteCommandConfig;
+import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.CampaignWriteCommand;
+import io.skai.template.rabbit.batch.MessageBatcher;
+import io.skai.template.services.CampaignService;
+import io.skai.template.services.OperationService;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.lambda.Seq;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class CampaignWriteCommandHandler implements MessageHandler, DisposableBean {
+
+    private final ObjectMapper objectMapper;
+    private final CampaignService campaignService;
+    private final OperationService operationService;
+    private final MessageBatcher<CampaignWriteCommand> batcher;
+
+    public CampaignWriteCommandHandler(ObjectMapper objectMapper,
+                                       CampaignService campaignService,
+                                       OperationService operationService,
+                                       WriteCommandConfig writeCommandConfig) {
+        this.objectMapper = objectMapper;
+        this.campaignService = campaignService;
+        this.operationService = operationService;
+        this.batcher = new MessageBatcher<>("campaign-write-command", writeCommandConfig.getBatchSize(),
+                writeCommandConfig.getBatchWindow(), this::createCampaigns);
+    }
+
+    @Override
+    public MessageResponse handleMessage(String message, Optional<String> jobName) {
+        log.info("Received campaign write command, operation : {}", jobName.orElse(null));
+        parseCommand(message).ifPresent(batcher::submit);
+        return MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+
+    private Optional<CampaignWriteCommand> parseCommand(String message) {
+        try {
+            return Optional.of(objectMapper.readValue(message, CampaignWriteCommand.class));
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed campaign write command : {}", message, e);
+            return Optional.empty();
+        }
+    }
+
+    private void createCampaigns(List<CampaignWriteCommand> commands) {
+        final List<Campaign> campaigns = commands.stream().map(CampaignWriteCommand::campaign).toList();
+        final List<Long> campaignIds;
+        try {
+            campaignIds = campaignService.createAll(campaigns);
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} campaign write commands failed, retrying one by one", commands.size(), e);
+            commands.forEach(this::createCampaign);
+            return;
+        }
+        Seq.seq(commands)
+                .zip(campaignIds)
+                .forEach(commandWithId -> recordStatus(commandWithId.v1(),
+                        () -> operationService.complete(commandWithId.v1().operationId(), commandWithId.v2())));
+    }
+
+    private void createCampaign(CampaignWriteCommand command) {
+        final long campaignId;
+        try {
+            campaignId = campaignService.create(command.campaign());
+        } catch (RuntimeException e) {
+            log.error("Campaign write command with operation id : {} failed", command.operationId(), e);
+            recordStatus(command, () -> operationService.fail(command.operationId(), e.getMessage()));
+            return;
+        }
+        recordStatus(command, () -> operationService.complete(command.operationId(), campaignId));
+    }
+
+    /**
+     * The campaigns are committed by the time the status is recorded, so a failure here must not fail the message:
+     * a redelivery would insert them again. The operation stays PENDING until its TTL expires instead.
+     */
+    private void recordStatus(CampaignWriteCommand command, Runnable statusWrite) {
+        try {
+            statusWrite.run();
+        } catch (RuntimeException e) {
+            log.error("Cannot record status of campaign write command with operation id : {}", command.operationId(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Claims each message in Redis with {@code SET NX} before handing it to the delegate and acknowledges messages that were
+ * already claimed within the TTL. The claim is released when the delegate fails or does not acknowledge, so the message
+ * can still be retried or redelivered.
+ * <p>
+ * Messages are keyed by their job name, so a consumer should only enable {@code dedupeTtl} when its producer gives every
+ * message a unique job name, like the operation id of a campaign write command. Messages without a job name are handed
+ * to the delegate as they are.
+ */
+@Slf4j
+public class DedupingMessageHandler implements MessageHandler {
+
+    private static final String SKIPPED_METRIC_NAME = new MetricNameBuilder(DedupingMessageHandler.class).name("skipped");
+    private static final String CONSUMER_TAG = "consumer";
+    private static final String DEDUPE_KEY_PREFIX = "dedupe:";
+    private static final String CLAIMED = "1";
+
+    private final MessageHandler delegate;
+    private final String consumerName;
+    private final Duration dedupeTtl;
+    private final RedisOperations<String, String> redisOperations;
+    private final Counter skippedCounter;
+
+    public DedupingMessageHandler(MessageHandler delegate,
+                                  String consumerName,
+                                  Duration dedupeTtl,
+                                  RedisOperations<String, String> redisOperations,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.consumerName = consumerName;
+        this.dedupeTtl = dedupeTtl;
+        this.redisOperations = redisOperations;
+        this.skippedCounter = meterRegistry.counter(SKIPPED_METRIC_NAME, CONSUMER_TAG, consumerName);
+    }
+
+    @Override
+    public MessageResponse handleMessage(String message, Optional<String> jobName) {
+        if (jobName.isEmpty()) {
+            return delegate.handleMessage(message, jobName);
+        }
+        final String dedupeKey = DEDUPE_KEY_PREFIX + consumerName + ":" + jobName.get();
+        if (!claim(dedupeKey)) {
+            log.debug("Skipping duplicate message : {} on consumer : {}", jobName.orElse(null), consumerName);
+            skippedCounter.increment();
+            return MessageResponse.builder()
+                    .withMessageAction(MessageAction.ACKNOWLEDGE)
+                    .build();
+        }
+        boolean handled = false;
+        try {
+            final MessageResponse response = delegate.handleMessage(message, jobName);
+            handled = response.getMessageAction() == MessageAction.ACKNOWLEDGE;
+            return response;
+        } finally {
+            if (!handled) {
+                release(dedupeKey);
+            }
+        }
+    }
+
+    private boolean claim(String dedupeKey) {
+        try {
+            return !Boolean.FALSE.equals(redisOperations.opsForValue().setIfAbsent(dedupeKey, CLAIMED, dedupeTtl));
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim message on consumer : {}, handling it without deduplication", consumerName, e);
+            return true;
+        }
+    }
+
+    private void release(String dedupeKey) {
+        try {
+            redisOperations.delete(dedupeKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release claim : {} on consumer : {}", dedupeKey, consumerName, e);
+        }
+    }
+}
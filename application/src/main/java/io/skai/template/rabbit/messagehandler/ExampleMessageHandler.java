@@ -3,26 +3,56 @@ package io.skai.template.rabbit.messagehandler;
 import com.kenshoo.kjobster.api.MessageAction;
 import com.kenshoo.kjobster.api.MessageHandler;
 import com.kenshoo.kjobster.api.MessageResponse;
-import lombok.RequiredArgsConstructor;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.rabbit.batch.MessageBatcher;
+import io.skai.template.redis.RedisValueWriter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class ExampleMessageHandler implements MessageHandler {
+public class ExampleMessageHandler implements MessageHandler, DisposableBean {
 
-    private final RedisOperations<String, String> redisOperations;
+    private final RedisValueWriter redisValueWriter;
+    private final MessageBatcher<Map.Entry<String, String>> batcher;
+
+    /**
+     * The consumer entry is passed in by {@link io.skai.template.rabbit.consumer.KjobsterConsumerRegistry} for
+     * consumers that set a {@code batchSize}, so the batch settings follow whichever consumer the handler serves.
+     */
+    public ExampleMessageHandler(RedisValueWriter redisValueWriter, RabbitConsumerConfig consumerConfig) {
+        this.redisValueWriter = redisValueWriter;
+        this.batcher = new MessageBatcher<>(consumerConfig.getName(), consumerConfig.getBatchSize(), consumerConfig.getBatchWindow(),
+                this::writeAll);
+    }
 
     @Override
     public MessageResponse handleMessage(String message, Optional<String> jobName) {
         log.info("Received message : {}, jobName : {}", message, jobName.orElse(null));
-        jobName.ifPresent(key -> redisOperations.opsForValue().set(key, message));
+        jobName.ifPresent(key -> {
+            redisValueWriter.verifyWritable(key, message);
+            batcher.submit(Map.entry(key, message));
+        });
         return MessageResponse.builder()
                 .withMessageAction(MessageAction.ACKNOWLEDGE)
                 .build();
     }
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+
+    private void writeAll(List<Map.Entry<String, String>> entries) {
+        final Map<String, String> values = new LinkedHashMap<>();
+        entries.forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+        redisValueWriter.writeAll(values);
+        log.debug("Flushed {} messages to redis in one pipeline", values.size());
+    }
 }
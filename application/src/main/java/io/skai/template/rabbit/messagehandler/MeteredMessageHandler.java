@@ -0,0 +1,59 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MeteredMessageHandler implements MessageHandler {
+
+    private static final String HANDLE_METRIC_NAME = new MetricNameBuilder(MeteredMessageHandler.class).name("handle");
+    private static final String MESSAGES_METRIC_NAME = new MetricNameBuilder(MeteredMessageHandler.class).name("messages");
+    private static final String IN_FLIGHT_METRIC_NAME = new MetricNameBuilder(MeteredMessageHandler.class).name("in_flight");
+    private static final String CONSUMER_TAG = "consumer";
+    private static final String ACTION_TAG = "action";
+    private static final String FAILED_ACTION = "FAILED";
+
+    private final MessageHandler delegate;
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+    private final Timer handleTimer;
+    private final AtomicInteger inFlight;
+
+    public MeteredMessageHandler(MessageHandler delegate, String consumerName, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.tags = Tags.of(CONSUMER_TAG, consumerName);
+        this.handleTimer = Timer.builder(HANDLE_METRIC_NAME)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.inFlight = meterRegistry.gauge(IN_FLIGHT_METRIC_NAME, tags, new AtomicInteger());
+    }
+
+    @Override
+    public MessageResponse handleMessage(String message, Optional<String> jobName) {
+        inFlight.incrementAndGet();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String action = FAILED_ACTION;
+        try {
+            final MessageResponse response = delegate.handleMessage(message, jobName);
+            action = response.getMessageAction().name();
+            return response;
+        } finally {
+            sample.stop(handleTimer);
+            inFlight.decrementAndGet();
+            messagesCounter(action).increment();
+        }
+    }
+
+    private Counter messagesCounter(String action) {
+        return meterRegistry.counter(MESSAGES_METRIC_NAME, tags.and(ACTION_TAG, action));
+    }
+}
@@ -0,0 +1,79 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands each message to one of a fixed set of single-threaded lanes chosen by its job name, so messages of the same job
+ * never run concurrently and run in the order the consumer workers received them, while different jobs spread across
+ * lanes. The calling worker waits for its message, so acknowledgement still follows handling.
+ */
+@Slf4j
+public class PartitionedMessageHandler implements MessageHandler, DisposableBean {
+
+    private static final String BACKLOG_METRIC_NAME = new MetricNameBuilder(PartitionedMessageHandler.class).name("backlog");
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final MessageHandler delegate;
+    private final String consumerName;
+    private final ThreadPoolExecutor[] lanes;
+
+    public PartitionedMessageHandler(MessageHandler delegate, String consumerName, int partitions, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.consumerName = consumerName;
+        this.lanes = new ThreadPoolExecutor[partitions];
+        for (int i = 0; i < partitions; i++) {
+            final String laneName = consumerName + "-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> new Thread(runnable, laneName));
+        }
+        meterRegistry.gauge(BACKLOG_METRIC_NAME, Tags.of("consumer", consumerName), lanes,
+                executors -> Arrays.stream(executors).mapToInt(executor -> executor.getQueue().size()).sum());
+    }
+
+    @Override
+    public MessageResponse handleMessage(String message, Optional<String> jobName) {
+        final Future<MessageResponse> response = lanes[lane(message, jobName)].submit(() -> delegate.handleMessage(message, jobName));
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for lane of consumer " + consumerName, e);
+        }
+    }
+
+    int lane(String message, Optional<String> jobName) {
+        return Math.floorMod(jobName.orElse(message).hashCode(), lanes.length);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        Arrays.stream(lanes).forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Lane of consumer : {} did not drain within {} seconds", consumerName, SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.skai.template.rabbit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.rabbitmq.client.AMQP;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.skai.template.config.rabbit.OutboxConfig;
+import io.skai.template.dataaccess.dao.OutboxDao;
+import io.skai.template.dataaccess.entities.OutboxEvent;
+import io.skai.template.rabbit.producer.MessagePublishException;
+import io.skai.template.rabbit.producer.RabbitPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes rows written to the outbox by the DAOs to the rabbit exchange through {@link RabbitPublisher}. Each batch
+ * is locked, deleted once all its publisher confirms arrive and committed in one transaction, so a crash between
+ * publish and delete re-publishes the batch and consumers should dedupe by the event id. Only one pod relays at a time:
+ * a batch starts by taking the database named lock of the relay and pods that miss it skip the round, since two pods
+ * relaying neighbouring batches would publish events of one aggregate out of order. Under the lock events are published
+ * with their aggregate as the ordering key, so events of one aggregate leave in id order on one channel.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "outbox", name = "enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final String PUBLISHED_METRIC_NAME = new MetricNameBuilder(OutboxRelay.class).name("published");
+    private static final String FAILURES_METRIC_NAME = new MetricNameBuilder(OutboxRelay.class).name("failures");
+    private static final String CONTENT_TYPE = "application/json";
+    private static final int PERSISTENT_DELIVERY_MODE = 2;
+
+    private final OutboxDao outboxDao;
+    private final OutboxConfig outboxConfig;
+    private final RabbitPublisher rabbitPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${outbox.relayInterval}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == outboxConfig.getBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Failed to relay outbox events, retrying in {}", outboxConfig.getRelayInterval(), e);
+            meterRegistry.counter(FAILURES_METRIC_NAME).increment();
+        }
+    }
+
+    int relayBatch() {
+        if (!outboxDao.tryLockRelay()) {
+            log.debug("Outbox relay lock is held by another instance, skipping");
+            return 0;
+        }
+        try {
+            return publishOldest();
+        } finally {
+            outboxDao.unlockRelay();
+        }
+    }
+
+    private int publishOldest() {
+        final List<OutboxEvent> events = outboxDao.lockOldest(outboxConfig.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            final List<CompletableFuture<Void>> confirms = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                confirms.add(rabbitPublisher.publishOrdered(orderingKey(event), routingKey(event), properties(event), body(event)));
+            }
+            CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new))
+                    .get(outboxConfig.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException | ExecutionException | TimeoutException e) {
+            throw new MessagePublishException("Failed to publish " + events.size() + " outbox events", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagePublishException("Interrupted while waiting for outbox publish confirms", e);
+        }
+        outboxDao.deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+        meterRegistry.counter(PUBLISHED_METRIC_NAME).increment(events.size());
+        log.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+
+    private static String orderingKey(OutboxEvent event) {
+        return event.getAggregateType().name() + ":" + event.getAggregateId();
+    }
+
+    private String routingKey(OutboxEvent event) {
+        return String.join(".", outboxConfig.getRoutingKeyPrefix(),
+                event.getAggregateType().name().toLowerCase(Locale.ROOT),
+                event.getEventType().name().toLowerCase(Locale.ROOT));
+    }
+
+    private AMQP.BasicProperties properties(OutboxEvent event) {
+        return new AMQP.BasicProperties.Builder()
+                .messageId(String.valueOf(event.getId()))
+                .contentType(CONTENT_TYPE)
+                .deliveryMode(PERSISTENT_DELIVERY_MODE)
+                .build();
+    }
+
+    private byte[] body(OutboxEvent event) throws JsonProcessingException {
+        final ObjectNode body = objectMapper.createObjectNode()
+                .put("id", event.getId())
+                .put("aggregate_type", event.getAggregateType().name())
+                .put("aggregate_id", event.getAggregateId())
+                .put("event_type", event.getEventType().name())
+                .put("create_date", String.valueOf(event.getCreateDate()));
+        if (event.getPayload() != null) {
+            body.set("payload", objectMapper.readTree(event.getPayload()));
+        }
+        return objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package io.skai.template.rabbit.producer;
+
+import com.kenshoo.kjobster.api.JobsterApi;
+import com.kenshoo.kjobster.rabbit.producer.JobMessage;
+import com.kenshoo.kjobster.rabbit.producer.RabbitProducer;
+import io.skai.template.config.rabbit.PublisherConfig;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.rabbit.BrokerDetailsFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Publishes Kjobster job messages through a small pool of producers, {@code rabbit-publisher.channels} of them, so
+ * concurrent callers do not queue behind a single producer. A producer that failed to publish is closed and replaced
+ * by a fresh one on the next call; only producers that published successfully go back to the pool.
+ */
+@Slf4j
+@Component
+public class KjobsterProducer {
+
+    private static final Duration PRODUCER_TIMEOUT = Duration.ofMinutes(1);
+
+    private final JobsterApi jobsterApi;
+    private final BrokerDetailsFactory brokerDetailsFactory;
+    private final RabbitConfig rabbitConfig;
+    private final Semaphore permits;
+    private final BlockingQueue<RabbitProducer> idleProducers = new LinkedBlockingQueue<>();
+
+    public KjobsterProducer(JobsterApi jobsterApi,
+                            BrokerDetailsFactory brokerDetailsFactory,
+                            RabbitConfig rabbitConfig,
+                            PublisherConfig publisherConfig) {
+        this.jobsterApi = jobsterApi;
+        this.brokerDetailsFactory = brokerDetailsFactory;
+        this.rabbitConfig = rabbitConfig;
+        this.permits = new Semaphore(Math.max(1, publisherConfig.getChannels()));
+    }
+
+    public void publish(String routingKey, String jobName, String messageBody) {
+        final JobMessage jobMessage = JobMessage.builder()
+                .withJobName(Optional.ofNullable(jobName))
+                .withMessageBody(messageBody)
+                .build();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagePublishException("Interrupted while waiting for a producer", e);
+        }
+        try {
+            publish(borrowProducer(), jobMessage, routingKey);
+        } catch (MessagePublishException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MessagePublishException("Failed to create a producer for routing key " + routingKey, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void publish(RabbitProducer producer, JobMessage jobMessage, String routingKey) {
+        try {
+            producer.publish(jobMessage, routingKey);
+        } catch (Exception e) {
+            closeQuietly(producer);
+            throw new MessagePublishException("Failed to publish message with routing key " + routingKey, e);
+        }
+        idleProducers.add(producer);
+    }
+
+    private void closeQuietly(RabbitProducer producer) {
+        try {
+            producer.close();
+        } catch (Exception e) {
+            log.warn("Failed to close producer for exchange : {}", rabbitConfig.getExchange(), e);
+        }
+    }
+
+    private RabbitProducer borrowProducer() throws Exception {
+        final RabbitProducer producer = idleProducers.poll();
+        if (producer != null) {
+            return producer;
+        }
+        final RabbitProducer newProducer = jobsterApi.getProducer(brokerDetailsFactory.getProducerBrokerDetails(rabbitConfig),
+                Optional.of(PRODUCER_TIMEOUT.toMillis()));
+        log.info("Producer for exchange : {} created successfully", rabbitConfig.getExchange());
+        return newProducer;
+    }
+}
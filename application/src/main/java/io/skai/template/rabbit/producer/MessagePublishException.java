@@ -0,0 +1,9 @@
+package io.skai.template.rabbit.producer;
+
+public class MessagePublishException extends RuntimeException {
+
+    public MessagePublishException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,275 @@
+package io.skai.template.rabbit.producer;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.AlreadyClosedException;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.skai.template.config.rabbit.PublisherConfig;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.rabbit.RabbitConnectionProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Publishes raw messages to rabbit off the calling thread. Callers enqueue into a bounded buffer, waiting at most
+ * {@code offerTimeout} when it is full, and get a future completed by the broker's publisher confirm. Each publisher
+ * thread owns one confirm channel and its own share of the buffer, publishes it in batches and tracks confirms
+ * asynchronously, with at most {@code maxOutstandingConfirms} unconfirmed messages per channel. Messages published
+ * with the same ordering key always go to the same thread, so they reach the broker in call order.
+ */
+@Slf4j
+@Component
+public class RabbitPublisher implements DisposableBean {
+
+    private static final String BUFFER_METRIC_NAME = new MetricNameBuilder(RabbitPublisher.class).name("buffer");
+    private static final String PUBLISHED_METRIC_NAME = new MetricNameBuilder(RabbitPublisher.class).name("published");
+    private static final String OUTCOME_TAG = "outcome";
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final RabbitConfig rabbitConfig;
+    private final PublisherConfig publisherConfig;
+    private final RabbitConnectionProvider rabbitConnectionProvider;
+    private final MeterRegistry meterRegistry;
+    private final List<PublisherWorker> workers;
+    private final List<Thread> publisherThreads;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    public RabbitPublisher(RabbitConfig rabbitConfig,
+                           PublisherConfig publisherConfig,
+                           RabbitConnectionProvider rabbitConnectionProvider,
+                           MeterRegistry meterRegistry) {
+        this.rabbitConfig = rabbitConfig;
+        this.publisherConfig = publisherConfig;
+        this.rabbitConnectionProvider = rabbitConnectionProvider;
+        this.meterRegistry = meterRegistry;
+        final int channels = Math.max(1, publisherConfig.getChannels());
+        final int workerBufferSize = Math.max(1, publisherConfig.getBufferSize() / channels);
+        this.workers = IntStream.range(0, channels)
+                .mapToObj(i -> new PublisherWorker(workerBufferSize))
+                .toList();
+        meterRegistry.gauge(BUFFER_METRIC_NAME, workers, publisherWorkers -> publisherWorkers.stream()
+                .mapToInt(worker -> worker.buffer.size())
+                .sum());
+        this.publisherThreads = IntStream.range(0, channels)
+                .mapToObj(i -> new Thread(workers.get(i), "rabbit-publisher-" + i))
+                .toList();
+        publisherThreads.forEach(publisherThread -> {
+            publisherThread.setDaemon(true);
+            publisherThread.start();
+        });
+    }
+
+    public CompletableFuture<Void> publish(String routingKey, AMQP.BasicProperties properties, byte[] body) {
+        return publish(rabbitConfig.getExchange(), routingKey, properties, body);
+    }
+
+    public CompletableFuture<Void> publish(String exchange, String routingKey, AMQP.BasicProperties properties, byte[] body) {
+        return enqueue(workers.get(Math.floorMod(nextWorker.getAndIncrement(), workers.size())), exchange, routingKey, properties, body);
+    }
+
+    public CompletableFuture<Void> publishOrdered(String orderingKey, String routingKey, AMQP.BasicProperties properties, byte[] body) {
+        return enqueue(workers.get(Math.floorMod(orderingKey.hashCode(), workers.size())), rabbitConfig.getExchange(), routingKey, properties, body);
+    }
+
+    private CompletableFuture<Void> enqueue(PublisherWorker worker, String exchange, String routingKey,
+                                            AMQP.BasicProperties properties, byte[] body) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new MessagePublishException("Publisher is closed", null));
+        }
+        final PendingPublish pendingPublish = new PendingPublish(exchange, routingKey, properties, body);
+        try {
+            if (!worker.buffer.offer(pendingPublish, publisherConfig.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                count("rejected", 1);
+                return CompletableFuture.failedFuture(new MessagePublishException(
+                        "Publish buffer is full, rejected message with routing key " + routingKey, null));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new MessagePublishException("Interrupted while buffering message", e));
+        }
+        return pendingPublish.confirmed;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        final long joinMillis = publisherConfig.getConfirmTimeout().toMillis() + POLL_TIMEOUT_MILLIS * 2;
+        for (Thread publisherThread : publisherThreads) {
+            publisherThread.join(joinMillis);
+        }
+        final List<PendingPublish> unpublished = new ArrayList<>();
+        workers.forEach(worker -> worker.buffer.drainTo(unpublished));
+        unpublished.forEach(pending -> pending.confirmed.completeExceptionally(new MessagePublishException("Publisher is closed", null)));
+    }
+
+    private void count(String outcome, int messages) {
+        meterRegistry.counter(PUBLISHED_METRIC_NAME, OUTCOME_TAG, outcome).increment(messages);
+    }
+
+    private final class PublisherWorker implements Runnable, ConfirmListener {
+
+        private final BlockingQueue<PendingPublish> buffer;
+        private final ConcurrentNavigableMap<Long, PendingPublish> outstanding = new ConcurrentSkipListMap<>();
+        private final Semaphore outstandingPermits = new Semaphore(publisherConfig.getMaxOutstandingConfirms());
+        private final List<PendingPublish> batch = new ArrayList<>();
+
+        private Channel channel;
+
+        private PublisherWorker(int bufferSize) {
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        @Override
+        public void run() {
+            while (running || !buffer.isEmpty() || !outstanding.isEmpty()) {
+                try {
+                    failExpired();
+                    final PendingPublish first = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        buffer.drainTo(batch, Math.max(0, publisherConfig.getMaxBatchSize() - 1));
+                        publish(batch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } finally {
+                    batch.clear();
+                }
+            }
+            failOutstanding(new MessagePublishException("Publisher is closed", null));
+            closeChannel();
+        }
+
+        private void publish(List<PendingPublish> pendingPublishes) throws InterruptedException {
+            try {
+                final Channel publishChannel = getChannel();
+                for (PendingPublish pending : pendingPublishes) {
+                    if (!outstandingPermits.tryAcquire(publisherConfig.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                        throw new TimeoutException("No publisher confirms received within " + publisherConfig.getConfirmTimeout());
+                    }
+                    pending.publishedNanos = System.nanoTime();
+                    outstanding.put(publishChannel.getNextPublishSeqNo(), pending);
+                    publishChannel.basicPublish(pending.exchange, pending.routingKey, pending.properties, pending.body);
+                }
+            } catch (IOException | TimeoutException | AlreadyClosedException e) {
+                log.warn("Failed to publish batch of {} messages, reopening channel", pendingPublishes.size(), e);
+                final MessagePublishException failure = new MessagePublishException("Failed to publish message", e);
+                failOutstanding(failure);
+                pendingPublishes.forEach(pending -> pending.confirmed.completeExceptionally(failure));
+                closeChannel();
+            }
+        }
+
+        @Override
+        public void handleAck(long deliveryTag, boolean multiple) {
+            confirm(deliveryTag, multiple, null);
+        }
+
+        @Override
+        public void handleNack(long deliveryTag, boolean multiple) {
+            confirm(deliveryTag, multiple, new MessagePublishException("Broker rejected message", null));
+        }
+
+        private void confirm(long deliveryTag, boolean multiple, MessagePublishException failure) {
+            final Map<Long, PendingPublish> confirmed = multiple
+                    ? outstanding.headMap(deliveryTag, true)
+                    : outstanding.subMap(deliveryTag, true, deliveryTag, true);
+            int completed = 0;
+            for (Long sequenceNumber : confirmed.keySet()) {
+                final PendingPublish pending = outstanding.remove(sequenceNumber);
+                if (pending != null) {
+                    outstandingPermits.release();
+                    completed++;
+                    if (failure == null) {
+                        pending.confirmed.complete(null);
+                    } else {
+                        pending.confirmed.completeExceptionally(failure);
+                    }
+                }
+            }
+            count(failure == null ? "confirmed" : "nacked", completed);
+        }
+
+        private void failExpired() {
+            final Map.Entry<Long, PendingPublish> oldest = outstanding.firstEntry();
+            if (oldest != null && System.nanoTime() - oldest.getValue().publishedNanos > publisherConfig.getConfirmTimeout().toNanos()) {
+                log.warn("No publisher confirm within {}, failing {} outstanding messages", publisherConfig.getConfirmTimeout(), outstanding.size());
+                failOutstanding(new MessagePublishException("Timed out waiting for publisher confirm", null));
+                closeChannel();
+            }
+        }
+
+        private void failOutstanding(MessagePublishException failure) {
+            int failed = 0;
+            for (Long sequenceNumber : outstanding.keySet()) {
+                final PendingPublish pending = outstanding.remove(sequenceNumber);
+                if (pending != null) {
+                    outstandingPermits.release();
+                    failed++;
+                    pending.confirmed.completeExceptionally(failure);
+                }
+            }
+            if (failed > 0) {
+                count("failed", failed);
+            }
+        }
+
+        private Channel getChannel() throws IOException, TimeoutException {
+            if (channel == null || !channel.isOpen()) {
+                channel = rabbitConnectionProvider.getConnection().createChannel();
+                channel.confirmSelect();
+                channel.addConfirmListener(this);
+            }
+            return channel;
+        }
+
+        private void closeChannel() {
+            if (channel != null && channel.isOpen()) {
+                try {
+                    channel.close();
+                } catch (IOException | TimeoutException | AlreadyClosedException e) {
+                    log.debug("Failed to close publisher channel", e);
+                }
+            }
+            channel = null;
+        }
+    }
+
+    private static final class PendingPublish {
+
+        private final String exchange;
+        private final String routingKey;
+        private final AMQP.BasicProperties properties;
+        private final byte[] body;
+        private final CompletableFuture<Void> confirmed = new CompletableFuture<>();
+        private volatile long publishedNanos;
+
+        private PendingPublish(String exchange, String routingKey, AMQP.BasicProperties properties, byte[] body) {
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.properties = properties;
+            this.body = body;
+        }
+    }
+}
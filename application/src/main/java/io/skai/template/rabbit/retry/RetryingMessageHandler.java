@@ -0,0 +1,153 @@
+package io.skai.template.rabbit.retry;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.rabbit.BrokerDetailsFactory;
+import io.skai.template.rabbit.RabbitConnectionProvider;
+import io.skai.template.rabbit.producer.KjobsterProducer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes messages whose handler throws or answers anything but {@code ACKNOWLEDGE} to per-attempt delay queues, which
+ * dead-letter back to the consumer's queue once their TTL expires, and to a dead-letter queue once all attempts are
+ * used. Kjobster messages carry no headers, so the attempt travels as a suffix of the republished job name and is
+ * stripped before the delegate sees it; two messages with the same content never share an attempt count. When the retry
+ * cannot be published the failure is rethrown right away, so Kjobster nacks the message back onto the queue and the
+ * worker is free for the broker's redelivery instead of sleeping.
+ */
+@Slf4j
+public class RetryingMessageHandler implements MessageHandler {
+
+    private static final String RETRY_METRIC_NAME = new MetricNameBuilder(RetryingMessageHandler.class).name("retry");
+    private static final String ATTEMPT_SEPARATOR = "#attempt-";
+
+    private final MessageHandler delegate;
+    private final RabbitConfig rabbitConfig;
+    private final RabbitConsumerConfig queueConfig;
+    private final List<Duration> retryDelays;
+    private final BrokerDetailsFactory brokerDetailsFactory;
+    private final RabbitConnectionProvider rabbitConnectionProvider;
+    private final KjobsterProducer kjobsterProducer;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean topologyDeclared;
+
+    public RetryingMessageHandler(MessageHandler delegate,
+                                  RabbitConfig rabbitConfig,
+                                  RabbitConsumerConfig queueConfig,
+                                  List<Duration> retryDelays,
+                                  BrokerDetailsFactory brokerDetailsFactory,
+                                  RabbitConnectionProvider rabbitConnectionProvider,
+                                  KjobsterProducer kjobsterProducer,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.rabbitConfig = rabbitConfig;
+        this.queueConfig = queueConfig;
+        this.retryDelays = List.copyOf(retryDelays);
+        this.brokerDetailsFactory = brokerDetailsFactory;
+        this.rabbitConnectionProvider = rabbitConnectionProvider;
+        this.kjobsterProducer = kjobsterProducer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public MessageResponse handleMessage(String message, Optional<String> jobName) {
+        final Optional<String> originalJobName = jobName.map(RetryingMessageHandler::stripAttempt).filter(name -> !name.isEmpty());
+        final MessageResponse response;
+        try {
+            response = delegate.handleMessage(message, originalJobName);
+        } catch (RuntimeException e) {
+            retry(message, jobName, originalJobName, e);
+            return acknowledge();
+        }
+        if (response.getMessageAction() == MessageAction.ACKNOWLEDGE) {
+            return response;
+        }
+        retry(message, jobName, originalJobName, new IllegalStateException("Handler answered " + response.getMessageAction()));
+        return acknowledge();
+    }
+
+    private void retry(String message, Optional<String> jobName, Optional<String> originalJobName, RuntimeException failure) {
+        try {
+            scheduleRetry(message, originalJobName, jobName.map(RetryingMessageHandler::attemptOf).orElse(0) + 1, failure);
+        } catch (Exception retryFailure) {
+            failure.addSuppressed(retryFailure);
+            log.warn("Cannot schedule retry on queue : {}, leaving the message to the broker to redeliver", queueConfig.getQueueName());
+            throw failure;
+        }
+    }
+
+    private static MessageResponse acknowledge() {
+        return MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+    }
+
+    private void scheduleRetry(String message, Optional<String> jobName, int attempt, RuntimeException failure) throws IOException, TimeoutException {
+        declareTopology();
+        if (attempt <= retryDelays.size()) {
+            log.warn("Message : {} on queue : {} failed, retry {} of {} in {}", jobName.orElse(null), queueConfig.getQueueName(),
+                    attempt, retryDelays.size(), retryDelays.get(attempt - 1), failure);
+            kjobsterProducer.publish(brokerDetailsFactory.getRetryRoutingKey(queueConfig, attempt),
+                    jobName.orElse("") + ATTEMPT_SEPARATOR + attempt, message);
+            meterRegistry.counter(RETRY_METRIC_NAME, "queue", queueConfig.getQueueName(), "outcome", "retried").increment();
+        } else {
+            log.error("Message : {} on queue : {} failed after {} retries, moving to dead letter queue", jobName.orElse(null),
+                    queueConfig.getQueueName(), retryDelays.size(), failure);
+            kjobsterProducer.publish(brokerDetailsFactory.getDeadLetterRoutingKey(queueConfig), jobName.orElse(null), message);
+            meterRegistry.counter(RETRY_METRIC_NAME, "queue", queueConfig.getQueueName(), "outcome", "dead_lettered").increment();
+        }
+    }
+
+    private static String stripAttempt(String jobName) {
+        final int separator = jobName.lastIndexOf(ATTEMPT_SEPARATOR);
+        return separator < 0 || attemptOf(jobName) == 0 ? jobName : jobName.substring(0, separator);
+    }
+
+    private static int attemptOf(String jobName) {
+        final int separator = jobName.lastIndexOf(ATTEMPT_SEPARATOR);
+        if (separator < 0) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(jobName.substring(separator + ATTEMPT_SEPARATOR.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private synchronized void declareTopology() throws IOException, TimeoutException {
+        if (topologyDeclared) {
+            return;
+        }
+        try (Channel channel = rabbitConnectionProvider.getConnection().createChannel()) {
+            for (int attempt = 1; attempt <= retryDelays.size(); attempt++) {
+                final String retryQueueName = brokerDetailsFactory.getRetryQueueName(queueConfig, attempt);
+                channel.queueDeclare(retryQueueName, true, false, false, Map.of(
+                        "x-message-ttl", retryDelays.get(attempt - 1).toMillis(),
+                        "x-dead-letter-exchange", rabbitConfig.getExchange(),
+                        "x-dead-letter-routing-key", queueConfig.getBindingKey()
+                ));
+                channel.queueBind(retryQueueName, rabbitConfig.getExchange(), brokerDetailsFactory.getRetryRoutingKey(queueConfig, attempt));
+            }
+            final String deadLetterQueueName = brokerDetailsFactory.getDeadLetterQueueName(queueConfig);
+            channel.queueDeclare(deadLetterQueueName, true, false, false, Map.of());
+            channel.queueBind(deadLetterQueueName, rabbitConfig.getExchange(), brokerDetailsFactory.getDeadLetterRoutingKey(queueConfig));
+        }
+        topologyDeclared = true;
+        log.info("Declared {} retry queues and dead letter queue for queue : {}", retryDelays.size(), queueConfig.getQueueName());
+    }
+}
@@ -0,0 +1,9 @@
+package io.skai.template.redis;
+
+public class RedisValueRejectedException extends RuntimeException {
+
+    public RedisValueRejectedException(String key, int valueBytes, int maxValueBytes) {
+        super("Value of " + valueBytes + " bytes for key " + key + " exceeds the limit of " + maxValueBytes + " bytes");
+    }
+
+}
@@ -0,0 +1,134 @@
+package io.skai.template.redis;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.skai.template.config.redis.RedisWritePolicyConfig;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes handler values to redis under the configured write policy: every key gets the TTL of its longest matching
+ * prefix (or the default TTL), values above {@code compressionThreshold} bytes are stored LZ4 compressed behind a
+ * header that {@link #read} recognises, and values above {@code maxValueBytes} are rejected with a
+ * {@link RedisValueRejectedException} instead of stored, so the message carrying them fails rather than being acked.
+ */
+@Slf4j
+@Component
+public class RedisValueWriter {
+
+    private static final String STORED_BYTES_METRIC_NAME = new MetricNameBuilder(RedisValueWriter.class).name("stored_bytes");
+    private static final String REJECTED_METRIC_NAME = new MetricNameBuilder(RedisValueWriter.class).name("rejected");
+    private static final byte[] LZ4_HEADER = {0, 'L', 'Z', '4'};
+    private static final int HEADER_LENGTH = LZ4_HEADER.length + Integer.BYTES;
+
+    private final RedisOperations<String, byte[]> binaryRedisTemplate;
+    private final RedisWritePolicyConfig writePolicyConfig;
+    private final MeterRegistry meterRegistry;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+    private final DistributionSummary plainBytes;
+    private final DistributionSummary compressedBytes;
+
+    public RedisValueWriter(RedisOperations<String, byte[]> binaryRedisTemplate,
+                            RedisWritePolicyConfig writePolicyConfig,
+                            MeterRegistry meterRegistry) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.writePolicyConfig = writePolicyConfig;
+        this.meterRegistry = meterRegistry;
+        this.plainBytes = storedBytes(meterRegistry, false);
+        this.compressedBytes = storedBytes(meterRegistry, true);
+    }
+
+    public void writeAll(Map<String, String> values) {
+        binaryRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            values.forEach((key, value) -> {
+                final Duration ttl = ttlFor(key);
+                connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), encode(key, value),
+                        ttl == null ? Expiration.persistent() : Expiration.from(ttl), RedisStringCommands.SetOption.upsert());
+            });
+            return null;
+        });
+    }
+
+    public Optional<String> read(String key) {
+        return Optional.ofNullable(binaryRedisTemplate.opsForValue().get(key)).map(this::decode);
+    }
+
+    /**
+     * Lets callers that batch writes reject an oversized value before it joins a pipeline, so it does not fail the
+     * values written with it.
+     */
+    public void verifyWritable(String key, String value) {
+        verifySize(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    byte[] encode(String key, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        verifySize(key, bytes);
+        if (bytes.length > writePolicyConfig.getCompressionThreshold()) {
+            final byte[] compressed = compress(bytes);
+            if (compressed.length < bytes.length) {
+                compressedBytes.record(compressed.length);
+                return compressed;
+            }
+        }
+        plainBytes.record(bytes.length);
+        return bytes;
+    }
+
+    private void verifySize(String key, byte[] bytes) {
+        if (writePolicyConfig.getMaxValueBytes() > 0 && bytes.length > writePolicyConfig.getMaxValueBytes()) {
+            log.error("Rejected value of {} bytes for key : {}, limit is {} bytes", bytes.length, key, writePolicyConfig.getMaxValueBytes());
+            meterRegistry.counter(REJECTED_METRIC_NAME).increment();
+            throw new RedisValueRejectedException(key, bytes.length, writePolicyConfig.getMaxValueBytes());
+        }
+    }
+
+    String decode(byte[] stored) {
+        if (stored.length < HEADER_LENGTH || !Arrays.equals(stored, 0, LZ4_HEADER.length, LZ4_HEADER, 0, LZ4_HEADER.length)) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        final int originalLength = ByteBuffer.wrap(stored, LZ4_HEADER.length, Integer.BYTES).getInt();
+        final byte[] original = decompressor.decompress(stored, HEADER_LENGTH, originalLength);
+        return new String(original, StandardCharsets.UTF_8);
+    }
+
+    Duration ttlFor(String key) {
+        return writePolicyConfig.getTtlByPrefix().entrySet().stream()
+                .filter(entry -> key.startsWith(entry.getKey()))
+                .max(Comparator.comparingInt(entry -> entry.getKey().length()))
+                .map(Map.Entry::getValue)
+                .orElse(writePolicyConfig.getDefaultTtl());
+    }
+
+    private byte[] compress(byte[] bytes) {
+        final byte[] compressed = new byte[HEADER_LENGTH + compressor.maxCompressedLength(bytes.length)];
+        System.arraycopy(LZ4_HEADER, 0, compressed, 0, LZ4_HEADER.length);
+        ByteBuffer.wrap(compressed, LZ4_HEADER.length, Integer.BYTES).putInt(bytes.length);
+        final int compressedLength = compressor.compress(bytes, 0, bytes.length, compressed, HEADER_LENGTH);
+        return Arrays.copyOf(compressed, HEADER_LENGTH + compressedLength);
+    }
+
+    private static DistributionSummary storedBytes(MeterRegistry meterRegistry, boolean compressed) {
+        return DistributionSummary.builder(STORED_BYTES_METRIC_NAME)
+                .baseUnit("bytes")
+                .tag("compressed", String.valueOf(compressed))
+                .register(meterRegistry);
+    }
+}
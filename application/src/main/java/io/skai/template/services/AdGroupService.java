@@ -3,7 +3,9 @@ package io.skai.template.services;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import io.skai.template.dataaccess.entities.AdGroup;
+import io.skai.template.dataaccess.entities.FetchedEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AdGroupService {
@@ -12,10 +14,14 @@ public interface AdGroupService {
 
     AdGroup findById(long id);
 
-    long update(long id, AdGroup adGroup);
+    LocalDateTime update(long id, AdGroup adGroup);
+
+    LocalDateTime update(long id, AdGroup adGroup, LocalDateTime expectedLastUpdated);
 
     long deleteById(long id);
 
-    List<AdGroup> fetchAdGroups(ApiFetchRequest<QueryFilter<String>> apiFetchRequest);
+    List<Long> upsert(List<AdGroup> adGroups);
+
+    List<FetchedEntity> fetchAdGroups(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest);
 
 }
@@ -1,27 +1,39 @@
 package io.skai.template.services;
 
+import com.kenshoo.datadog.MetricNameBuilder;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.skai.template.dataaccess.dao.AdGroupDao;
 import io.skai.template.dataaccess.dao.CampaignDao;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
 import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service("adGroupService")
 @Slf4j
 @RequiredArgsConstructor
 public class AdGroupServiceImpl implements AdGroupService {
 
+    private static final String UPDATE_NO_OP_METRIC_NAME = new MetricNameBuilder(AdGroupServiceImpl.class).name("update.noop");
+
     private final AdGroupDao adGroupDao;
     private final CampaignDao campaignDao;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public long create(AdGroup adGroup) {
@@ -42,21 +54,44 @@ public class AdGroupServiceImpl implements AdGroupService {
     }
 
     @Override
-    public long update(long id, AdGroup adGroup) {
+    public LocalDateTime update(long id, AdGroup adGroup) {
         final AdGroup adGroupToUpdate = AdGroup.builder()
                 .id(id)
                 .name(adGroup.getName())
                 .status(adGroup.getStatus())
                 .build();
 
-        final Optional<AdGroup> adGroupById = adGroupDao.findById(adGroupToUpdate.getId());
-        if (adGroupById.isEmpty()) {
+        final UpdateResult updateResult = adGroupDao.update(adGroupToUpdate);
+        if (updateResult.lastUpdated() == null) {
             throw new FieldValidationException(id, List.of(new FieldError("id", "AdGroup not found or invalid.")));
         }
+        if (updateResult.changedRows() == 0) {
+            reportNoOpUpdate(id);
+        }
 
-        adGroupDao.update(adGroupToUpdate);
+        return updateResult.lastUpdated();
+    }
+
+    @Override
+    public LocalDateTime update(long id, AdGroup adGroup, LocalDateTime expectedLastUpdated) {
+        final AdGroup adGroupToUpdate = AdGroup.builder()
+                .id(id)
+                .name(adGroup.getName())
+                .status(adGroup.getStatus())
+                .build();
 
-        return adGroupToUpdate.getId();
+        final UpdateResult updateResult = adGroupDao.update(adGroupToUpdate, expectedLastUpdated);
+        if (updateResult.lastUpdated() == null) {
+            throw new FieldValidationException(id, List.of(new FieldError("id", "AdGroup not found or invalid.")));
+        }
+        if (updateResult.changedRows() == 0) {
+            if (!expectedLastUpdated.equals(updateResult.lastUpdated())) {
+                throw new PreconditionFailedException(id, List.of(new FieldError("last_updated", "AdGroup was modified by another request.")));
+            }
+            reportNoOpUpdate(id);
+        }
+
+        return updateResult.lastUpdated();
     }
 
     @Override
@@ -71,8 +106,24 @@ public class AdGroupServiceImpl implements AdGroupService {
     }
 
     @Override
-    public List<AdGroup> fetchAdGroups(ApiFetchRequest<QueryFilter<String>> apiFetchRequest) {
+    @Transactional
+    public List<Long> upsert(List<AdGroup> adGroups) {
+        final Set<Long> campaignIds = adGroups.stream().map(AdGroup::getCampaignId).collect(Collectors.toSet());
+        final Set<Long> existingCampaignIds = campaignDao.findExistingIds(campaignIds);
+        if (!existingCampaignIds.containsAll(campaignIds)) {
+            throw new FieldValidationException(null, List.of(new FieldError("campaign_id", "AdGroups not upserted because 'campaign_id' not found or invalid")));
+        }
+        return adGroupDao.upsert(adGroups);
+    }
+
+    @Override
+    public List<FetchedEntity> fetchAdGroups(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest) {
         return adGroupDao.fetchAdGroups(apiFetchRequest);
     }
 
+    private void reportNoOpUpdate(long id) {
+        log.info("AdGroup with id: {} already has requested values, nothing updated", id);
+        meterRegistry.counter(UPDATE_NO_OP_METRIC_NAME).increment();
+    }
+
 }
@@ -0,0 +1,9 @@
+package io.skai.template.services;
+
+import io.skai.template.dataaccess.entities.Campaign;
+
+public interface CampaignCommandService {
+
+    String submitCreate(Campaign campaign);
+
+}
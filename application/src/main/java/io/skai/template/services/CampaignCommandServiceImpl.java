@@ -0,0 +1,46 @@
+package io.skai.template.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.WriteCommandConfig;
+import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.CampaignWriteCommand;
+import io.skai.template.rabbit.producer.KjobsterProducer;
+import io.skai.template.rabbit.producer.MessagePublishException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service("campaignCommandService")
+@Slf4j
+@RequiredArgsConstructor
+public class CampaignCommandServiceImpl implements CampaignCommandService {
+
+    private final KjobsterProducer kjobsterProducer;
+    private final OperationService operationService;
+    private final ObjectMapper objectMapper;
+    private final WriteCommandConfig writeCommandConfig;
+    private final RabbitConfig rabbitConfig;
+    private final CampaignService campaignService;
+
+    @Override
+    public String submitCreate(Campaign campaign) {
+        campaignService.validate(campaign);
+        final String bindingKey = rabbitConfig.getConsumer(writeCommandConfig.getConsumer()).getBindingKey();
+        final String operationId = operationService.create();
+        try {
+            final String message = objectMapper.writeValueAsString(new CampaignWriteCommand(operationId, campaign));
+            kjobsterProducer.publish(bindingKey, operationId, message);
+        } catch (JsonProcessingException e) {
+            operationService.fail(operationId, e.getMessage());
+            throw new MessagePublishException("Cannot serialize campaign write command", e);
+        } catch (MessagePublishException e) {
+            operationService.fail(operationId, e.getMessage());
+            throw e;
+        }
+        log.info("Campaign create submitted with operation id : {}", operationId);
+        return operationId;
+    }
+
+}
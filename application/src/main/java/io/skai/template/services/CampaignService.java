@@ -3,19 +3,29 @@ package io.skai.template.services;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CampaignService {
 
     long create(Campaign campaign);
 
+    List<Long> createAll(List<Campaign> campaigns);
+
+    void validate(Campaign campaign);
+
     Campaign findById(long id);
 
-    long update(long id, Campaign campaign);
+    LocalDateTime update(long id, Campaign campaign);
+
+    LocalDateTime update(long id, Campaign campaign, LocalDateTime expectedLastUpdated);
 
     long deleteById(long id);
 
-    List<Campaign> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest);
+    List<Long> upsert(List<Campaign> campaigns);
+
+    List<FetchedEntity> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest);
 
 }
@@ -1,15 +1,24 @@
 package io.skai.template.services;
 
+import com.kenshoo.datadog.MetricNameBuilder;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.skai.template.dataaccess.dao.CampaignDao;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
 import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,13 +27,41 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CampaignServiceImpl implements CampaignService {
 
+    private static final String UPDATE_NO_OP_METRIC_NAME = new MetricNameBuilder(CampaignServiceImpl.class).name("update.noop");
+
     private final CampaignDao campaignDao;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public long create(Campaign campaign) {
+        validate(campaign);
         return campaignDao.create(campaign);
     }
 
+    @Override
+    public void validate(Campaign campaign) {
+        final List<FieldError> fieldErrors = new ArrayList<>();
+        if (campaign.getName() == null || campaign.getName().isBlank()) {
+            fieldErrors.add(new FieldError("name", "Campaign name is required."));
+        }
+        if (campaign.getKsName() == null || campaign.getKsName().isBlank()) {
+            fieldErrors.add(new FieldError("ks_name", "Campaign ks name is required."));
+        }
+        if (campaign.getStatus() == null) {
+            fieldErrors.add(new FieldError("status", "Campaign status is required."));
+        }
+        if (!fieldErrors.isEmpty()) {
+            throw new InvalidRequestException(fieldErrors);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<Long> createAll(List<Campaign> campaigns) {
+        campaigns.forEach(this::validate);
+        return campaignDao.createAll(campaigns);
+    }
+
     @Override
     public Campaign findById(long id) {
         final Optional<Campaign> campaignById = campaignDao.findById(id);
@@ -33,7 +70,7 @@ public class CampaignServiceImpl implements CampaignService {
     }
 
     @Override
-    public long update(long id, Campaign campaign) {
+    public LocalDateTime update(long id, Campaign campaign) {
         final Campaign campaignToUpdate = Campaign.builder()
                 .id(id)
                 .name(campaign.getName())
@@ -41,13 +78,38 @@ public class CampaignServiceImpl implements CampaignService {
                 .status(campaign.getStatus())
                 .build();
 
-        final Optional<Campaign> campaignById = campaignDao.findById(campaignToUpdate.getId());
-        if (campaignById.isEmpty()) {
+        final UpdateResult updateResult = campaignDao.update(campaignToUpdate);
+        if (updateResult.lastUpdated() == null) {
+            throw new FieldValidationException(id, List.of(new FieldError("id", "Campaign not found or invalid.")));
+        }
+        if (updateResult.changedRows() == 0) {
+            reportNoOpUpdate(id);
+        }
+
+        return updateResult.lastUpdated();
+    }
+
+    @Override
+    public LocalDateTime update(long id, Campaign campaign, LocalDateTime expectedLastUpdated) {
+        final Campaign campaignToUpdate = Campaign.builder()
+                .id(id)
+                .name(campaign.getName())
+                .ksName(campaign.getKsName())
+                .status(campaign.getStatus())
+                .build();
+
+        final UpdateResult updateResult = campaignDao.update(campaignToUpdate, expectedLastUpdated);
+        if (updateResult.lastUpdated() == null) {
             throw new FieldValidationException(id, List.of(new FieldError("id", "Campaign not found or invalid.")));
         }
-        campaignDao.update(campaignToUpdate);
+        if (updateResult.changedRows() == 0) {
+            if (!expectedLastUpdated.equals(updateResult.lastUpdated())) {
+                throw new PreconditionFailedException(id, List.of(new FieldError("last_updated", "Campaign was modified by another request.")));
+            }
+            reportNoOpUpdate(id);
+        }
 
-        return campaignToUpdate.getId();
+        return updateResult.lastUpdated();
     }
 
     @Override
@@ -62,8 +124,19 @@ public class CampaignServiceImpl implements CampaignService {
     }
 
     @Override
-    public List<Campaign> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest) {
+    @Transactional
+    public List<Long> upsert(List<Campaign> campaigns) {
+        return campaignDao.upsert(campaigns);
+    }
+
+    @Override
+    public List<FetchedEntity> fetchCampaigns(ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest) {
         return campaignDao.fetchCampaigns(apiFetchRequest);
     }
 
+    private void reportNoOpUpdate(long id) {
+        log.info("Campaign with id: {} already has requested values, nothing updated", id);
+        meterRegistry.counter(UPDATE_NO_OP_METRIC_NAME).increment();
+    }
+
 }
@@ -15,6 +15,10 @@ public interface FieldMapperService {
 
     List<FieldMapper<?, Campaign.CampaignBuilder>> parseCampaignFieldsWithPrefix(List<String> fields);
 
+    Optional<FieldMapper<?, Campaign.CampaignBuilder>> parseCampaignFieldWithPrefix(String field);
+
+    Optional<FieldMapper<?, AdGroup.AdGroupBuilder>> parseAdGroupField(String field);
+
     Optional<FieldMapper<?, AdGroup.AdGroupBuilder>> parseAdGroupFieldWithPrefix(String field);
 
     List<FieldMapper<?, AdGroup.AdGroupBuilder>> parseAdGroupFields(List<String> fields);
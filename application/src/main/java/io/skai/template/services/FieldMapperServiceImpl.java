@@ -28,19 +28,19 @@ public class FieldMapperServiceImpl implements FieldMapperService {
     private static final List<FieldMapper<?, Campaign.CampaignBuilder>> CAMPAIGN_FIELDS = List.of(
             CAMPAIGN_ID_FIELD,
             new FieldMapper<>("name", CampaignTable.TABLE.name, (builder, value) -> builder.name(value)),
-            new FieldMapper<>("ksName", CampaignTable.TABLE.ksName, (builder, value) -> builder.ksName(value)),
+            new FieldMapper<>("ksName", "ks_name", CampaignTable.TABLE.ksName, (builder, value) -> builder.ksName(value)),
             new FieldMapper<>("status", CampaignTable.TABLE.status, (builder, value) -> builder.status(Status.valueOf(value))),
-            new FieldMapper<>("createDate", CampaignTable.TABLE.createDate, (builder, value) -> builder.createDate(value)),
-            new FieldMapper<>("lastUpdated", CampaignTable.TABLE.lastUpdated, (builder, value) -> builder.lastUpdated(value))
+            new FieldMapper<>("createDate", "create_date", CampaignTable.TABLE.createDate, (builder, value) -> builder.createDate(value)),
+            new FieldMapper<>("lastUpdated", "last_updated", CampaignTable.TABLE.lastUpdated, (builder, value) -> builder.lastUpdated(value))
     );
 
     private static final List<FieldMapper<?, AdGroup.AdGroupBuilder>> AD_CROUP_FIELDS = List.of(
             AD_GROUP_ID_FIELD,
-            new FieldMapper<>("campaignId", AdGroupTable.TABLE.campaignId, (builder, value) -> builder.campaignId(value)),
+            new FieldMapper<>("campaignId", "campaign_id", AdGroupTable.TABLE.campaignId, (builder, value) -> builder.campaignId(value)),
             new FieldMapper<>("name", AdGroupTable.TABLE.name, (builder, value) -> builder.name(value)),
             new FieldMapper<>("status", AdGroupTable.TABLE.status, (builder, value) -> builder.status(Status.valueOf(value))),
-            new FieldMapper<>("createDate", AdGroupTable.TABLE.createDate, (builder, value) -> builder.createDate(value)),
-            new FieldMapper<>("lastUpdated", AdGroupTable.TABLE.lastUpdated, (builder, value) -> builder.lastUpdated(value))
+            new FieldMapper<>("createDate", "create_date", AdGroupTable.TABLE.createDate, (builder, value) -> builder.createDate(value)),
+            new FieldMapper<>("lastUpdated", "last_updated", AdGroupTable.TABLE.lastUpdated, (builder, value) -> builder.lastUpdated(value))
     );
 
     @Override
@@ -62,6 +62,20 @@ public class FieldMapperServiceImpl implements FieldMapperService {
         return Seq.seq(getCampaignFields(filterFields)).append(CAMPAIGN_ID_FIELD).distinct(FieldMapper::getName).toList();
     }
 
+    @Override
+    public Optional<FieldMapper<?, Campaign.CampaignBuilder>> parseCampaignFieldWithPrefix(String field) {
+        return Optional.ofNullable(getFieldWithPrefix(field, CAMPAIGN_PREFIX))
+                .map(campaignField -> getCampaignFields(List.of(campaignField)))
+                .flatMap(parsedField -> parsedField.stream().findFirst());
+    }
+
+    @Override
+    public Optional<FieldMapper<?, AdGroup.AdGroupBuilder>> parseAdGroupField(String field) {
+        return Optional.ofNullable(getFieldWithoutPrefix(field))
+                .map(adGroupField -> getAdGroupFields(List.of(adGroupField)))
+                .flatMap(parsedField -> parsedField.stream().findFirst());
+    }
+
     @Override
     public Optional<FieldMapper<?, AdGroup.AdGroupBuilder>> parseAdGroupFieldWithPrefix(String field) {
         return Optional.ofNullable(getFieldWithPrefix(field, AD_GROUP_PREFIX))
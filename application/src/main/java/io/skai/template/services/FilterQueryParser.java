@@ -0,0 +1,18 @@
+package io.skai.template.services;
+
+import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
+import com.kenshoo.openplatform.apimodel.QueryFilter;
+import io.skai.template.dataaccess.entities.FetchQuery;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface FilterQueryParser {
+
+    List<QueryFilter<List<String>>> parse(String filters);
+
+    ApiFetchRequest<QueryFilter<List<String>>> parseFetchQuery(FetchQuery fetchQuery);
+
+    ApiFetchRequest<QueryFilter<List<String>>> parseFetchRequest(InputStream body);
+
+}
@@ -0,0 +1,287 @@
+package io.skai.template.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
+import com.kenshoo.openplatform.apimodel.QueryFilter;
+import com.kenshoo.openplatform.apimodel.enums.FilterOperator;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.dataaccess.entities.FetchQuery;
+import io.skai.template.dataaccess.entities.QueryFilterException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the {@code filters} query param of the fetch endpoints, and the body of the search endpoints, with a single
+ * streaming pass over the json, validating every filter as it is read. Parsed query params are kept in a cache bounded
+ * by the total characters of its keys, since dashboards keep sending the same filters; the key normalises whitespace
+ * outside json strings, so formatting variants share an entry, and params over {@code filter-query.maxLength} are rejected
+ * before parsing. Search bodies are not cached. Fetch requests from both sources get {@code filter-query.defaultLimit}
+ * when they name no limit and are rejected above {@code filter-query.maxLimit}.
+ */
+@Service("filterQueryParser")
+@Slf4j
+public class FilterQueryParserImpl implements FilterQueryParser {
+
+    private static final String FIELD = "field";
+    private static final String OPERATOR = "operator";
+    private static final String VALUES = "values";
+    private static final String FIELDS = "fields";
+    private static final String FILTERS = "filters";
+    private static final String LIMIT = "limit";
+    private static final String FILTERS_PARAM = "filters query param";
+    private static final String FETCH_REQUEST = "fetch request body";
+    private static final String FIELD_NOT_CONTAINS_MESSAGE = "Json not contains field";
+    private static final String JSON_PUNCTUATION = "{}[],:";
+
+    private final ObjectReader objectReader;
+    private final int maxLength;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final Cache<String, List<QueryFilter<List<String>>>> parsedFilters;
+
+    public FilterQueryParserImpl(ObjectMapper objectMapper,
+                                 @Value("${filter-query.maxLength}") int maxLength,
+                                 @Value("${filter-query.cacheMaxChars}") long cacheMaxChars,
+                                 @Value("${filter-query.defaultLimit}") int defaultLimit,
+                                 @Value("${filter-query.maxLimit}") int maxLimit) {
+        this.objectReader = objectMapper.reader();
+        this.maxLength = maxLength;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.parsedFilters = CacheBuilder.newBuilder()
+                .maximumWeight(cacheMaxChars)
+                .<String, List<QueryFilter<List<String>>>>weigher((key, value) -> key.length())
+                .build();
+    }
+
+    @Override
+    public List<QueryFilter<List<String>>> parse(String filters) {
+        if (StringUtils.isBlank(filters)) {
+            return List.of();
+        }
+        if (filters.length() > maxLength) {
+            throw queryFilterException(FILTERS, "Filters query param can not be longer than " + maxLength + " characters");
+        }
+        final String cacheKey = normalizeWhitespace(filters);
+        final List<QueryFilter<List<String>>> cached = parsedFilters.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        final List<QueryFilter<List<String>>> parsed = parseFilters(filters);
+        parsedFilters.put(cacheKey, parsed);
+        return parsed;
+    }
+
+    @Override
+    public ApiFetchRequest<QueryFilter<List<String>>> parseFetchQuery(FetchQuery fetchQuery) {
+        return new ApiFetchRequest.Builder<QueryFilter<List<String>>>()
+                .withFilters(parse(fetchQuery.filters()))
+                .withFields(fetchQuery.fields())
+                .withLimit(resolveLimit(fetchQuery.limit()))
+                .build();
+    }
+
+    @Override
+    public ApiFetchRequest<QueryFilter<List<String>>> parseFetchRequest(InputStream body) {
+        try (JsonParser parser = objectReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalidJson(FETCH_REQUEST);
+            }
+            final ApiFetchRequest.Builder<QueryFilter<List<String>>> builder = new ApiFetchRequest.Builder<QueryFilter<List<String>>>()
+                    .withFilters(List.of())
+                    .withFields(List.of());
+            Integer limit = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case FIELDS -> builder.withFields(parseStrings(parser, FETCH_REQUEST));
+                    case FILTERS -> builder.withFilters(parseFilters(parser, FETCH_REQUEST));
+                    case LIMIT -> limit = parseLimit(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw invalidJson(FETCH_REQUEST);
+            }
+            return builder.withLimit(resolveLimit(limit)).build();
+        } catch (IOException e) {
+            log.debug("Cannot parse fetch request", e);
+            throw invalidJson(FETCH_REQUEST);
+        }
+    }
+
+    private List<QueryFilter<List<String>>> parseFilters(String filters) {
+        try (JsonParser parser = objectReader.createParser(filters)) {
+            parser.nextToken();
+            final List<QueryFilter<List<String>>> queryFilters = parseFilters(parser, FILTERS_PARAM);
+            if (parser.nextToken() != null) {
+                throw invalidJson(FILTERS_PARAM);
+            }
+            return queryFilters;
+        } catch (IOException e) {
+            log.debug("Cannot parse filters : {}", filters, e);
+            throw invalidJson(FILTERS_PARAM);
+        }
+    }
+
+    private static Integer parseLimit(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw invalidJson(FETCH_REQUEST);
+        }
+        return parser.getIntValue();
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw queryFilterException(LIMIT, "Limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    /**
+     * Drops whitespace next to json punctuation outside strings and keeps a single space between two scalars, so
+     * {@code [1 2]} is not mistaken for {@code [12]} and still fails parsing.
+     */
+    private static String normalizeWhitespace(String json) {
+        final StringBuilder normalized = new StringBuilder(json.length());
+        boolean inString = false;
+        boolean escaped = false;
+        boolean afterWhitespace = false;
+        for (int i = 0; i < json.length(); i++) {
+            final char c = json.charAt(i);
+            if (inString) {
+                inString = escaped || c != '"';
+                escaped = !escaped && c == '\\';
+            } else if (Character.isWhitespace(c)) {
+                afterWhitespace = true;
+                continue;
+            } else {
+                if (afterWhitespace && !isPunctuation(c) && !normalized.isEmpty()
+                        && !isPunctuation(normalized.charAt(normalized.length() - 1))) {
+                    normalized.append(' ');
+                }
+                afterWhitespace = false;
+                inString = c == '"';
+            }
+            normalized.append(c);
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isPunctuation(char c) {
+        return JSON_PUNCTUATION.indexOf(c) >= 0;
+    }
+
+    private static List<QueryFilter<List<String>>> parseFilters(JsonParser parser, String source) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw invalidJson(source);
+        }
+        final List<QueryFilter<List<String>>> queryFilters = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            queryFilters.add(parseFilter(parser, source));
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw invalidJson(source);
+        }
+        return List.copyOf(queryFilters);
+    }
+
+    private static QueryFilter<List<String>> parseFilter(JsonParser parser, String source) throws IOException {
+        String field = null;
+        String operator = null;
+        List<String> values = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case FIELD -> field = scalarText(parser);
+                case OPERATOR -> operator = scalarText(parser);
+                case VALUES -> values = parseValues(parser, source);
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw invalidJson(source);
+        }
+        return validate(field, operator, values);
+    }
+
+    private static List<String> parseValues(JsonParser parser, String source) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        return parseStrings(parser, source);
+    }
+
+    private static List<String> parseStrings(JsonParser parser, String source) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw invalidJson(source);
+        }
+        final List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == null) {
+                throw invalidJson(source);
+            }
+            values.add(scalarText(parser));
+        }
+        return values;
+    }
+
+    private static String scalarText(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue()) {
+            parser.skipChildren();
+            return StringUtils.EMPTY;
+        }
+        return parser.getText();
+    }
+
+    private static QueryFilter<List<String>> validate(String field, String operator, List<String> values) {
+        if (field == null) {
+            throw queryFilterException(FIELD, FIELD_NOT_CONTAINS_MESSAGE);
+        } else if (operator == null) {
+            throw queryFilterException(OPERATOR, FIELD_NOT_CONTAINS_MESSAGE);
+        } else if (values == null) {
+            throw queryFilterException(VALUES, FIELD_NOT_CONTAINS_MESSAGE);
+        } else if (StringUtils.isBlank(field)) {
+            throw queryFilterException(FIELD, "Field value can not be empty");
+        } else if (StringUtils.isBlank(operator)) {
+            throw queryFilterException(OPERATOR, "Operator value can not be empty");
+        } else if (values.isEmpty()) {
+            throw queryFilterException(VALUES, "Value array can not be empty");
+        }
+        try {
+            return new QueryFilter<>(field, FilterOperator.valueOf(operator), List.copyOf(values));
+        } catch (IllegalArgumentException e) {
+            throw queryFilterException(OPERATOR, "Unknown operator " + operator);
+        }
+    }
+
+    private static QueryFilterException invalidJson(String source) {
+        return queryFilterException(FILTERS, "Cannot parse " + source + ". Invalid json pattern");
+    }
+
+    private static QueryFilterException queryFilterException(String field, String message) {
+        return new QueryFilterException(List.of(new FieldError(field, message)));
+    }
+
+}
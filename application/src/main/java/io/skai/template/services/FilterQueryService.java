@@ -10,6 +10,10 @@ public interface FilterQueryService {
 
     Optional<Condition> filteringByCampaignFields(List<QueryFilter<List<String>>> queryFilters);
 
+    Optional<Condition> filteringByCampaignFieldsWithPrefixes(List<QueryFilter<List<String>>> queryFilters);
+
+    Optional<Condition> filteringByAdGroupFields(List<QueryFilter<List<String>>> queryFilters);
+
     Optional<Condition> filteringByAdGroupFieldsWithPrefixes(List<QueryFilter<List<String>>> queryFilters);
 
 }
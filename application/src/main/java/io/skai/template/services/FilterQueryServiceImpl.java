@@ -29,6 +29,24 @@ public class FilterQueryServiceImpl implements FilterQueryService {
                 .reduce(Condition::and);
     }
 
+    @Override
+    public Optional<Condition> filteringByCampaignFieldsWithPrefixes(List<QueryFilter<List<String>>> queryFilters) {
+        return Seq.seq(queryFilters)
+                .map(queryFilter -> new Tuple2<>(queryFilter, fieldMapperService.parseCampaignFieldWithPrefix(queryFilter.getField())))
+                .filter(queryFilter -> queryFilter.v2().isPresent())
+                .map(queryFilter -> filtering(queryFilter.v1(), queryFilter.v2().get().getDbField()))
+                .reduce(Condition::and);
+    }
+
+    @Override
+    public Optional<Condition> filteringByAdGroupFields(List<QueryFilter<List<String>>> queryFilters) {
+        return Seq.seq(queryFilters)
+                .map(queryFilter -> new Tuple2<>(queryFilter, fieldMapperService.parseAdGroupField(queryFilter.getField())))
+                .filter(queryFilter -> queryFilter.v2().isPresent())
+                .map(queryFilter -> filtering(queryFilter.v1(), queryFilter.v2().get().getDbField()))
+                .reduce(Condition::and);
+    }
+
     @Override
     public Optional<Condition> filteringByAdGroupFieldsWithPrefixes(List<QueryFilter<List<String>>> queryFilters) {
         return Seq.seq(queryFilters)
@@ -0,0 +1,9 @@
+package io.skai.template.services;
+
+import java.util.function.LongSupplier;
+
+public interface IdempotencyService {
+
+    long execute(String scope, String caller, String idempotencyKey, Object request, LongSupplier action);
+
+}
@@ -0,0 +1,139 @@
+package io.skai.template.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.dataaccess.entities.IdempotencyConflictException;
+import io.skai.template.dataaccess.entities.IdempotencyKeyReuseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+@Service("idempotencyService")
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService, DisposableBean {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final char SEPARATOR = ':';
+    private static final RedisScript<Long> EXTEND_LOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private final RedisOperations<String, String> redisOperations;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl}")
+    private final Duration ttl;
+    @Value("${idempotency.lockTtl}")
+    private final Duration lockTtl;
+
+    private final ScheduledExecutorService lockExtender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "idempotency-lock-extender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Claims the key with a short {@code idempotency.lockTtl} while the action runs, so a request that dies midway
+     * blocks retries only briefly, and keeps the created id for the full {@code idempotency.ttl}. The lock is extended
+     * every third of its ttl for as long as the action runs, so a slow create is not repeated by a retry. Keys are
+     * scoped per caller, so two clients picking the same key do not collide, and store a hash of the request, so
+     * reusing a key with a different body is rejected instead of replaying the other request's result.
+     */
+    @Override
+    public long execute(String scope, String caller, String idempotencyKey, Object request, LongSupplier action) {
+        final String key = KEY_PREFIX + scope + ":" + caller + ":" + idempotencyKey;
+        final String requestHash = hash(request);
+        final String lockValue = requestHash + SEPARATOR + IN_PROGRESS;
+        final Boolean acquired = redisOperations.opsForValue().setIfAbsent(key, lockValue, lockTtl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            return getRecordedId(key, idempotencyKey, requestHash);
+        }
+
+        final long id;
+        final ScheduledFuture<?> lockExtension = extendWhileRunning(key, lockValue);
+        try {
+            id = action.getAsLong();
+        } catch (RuntimeException e) {
+            redisOperations.delete(key);
+            throw e;
+        } finally {
+            lockExtension.cancel(false);
+        }
+        try {
+            redisOperations.opsForValue().set(key, requestHash + SEPARATOR + id, ttl);
+        } catch (RuntimeException e) {
+            // The entity exists, so failing the request would only invite a retry that creates it again. The lock is
+            // kept and expires after lockTtl, after which a retry with this key is no longer deduplicated.
+            log.error("Created entity : {} for idempotency key : {} but failed to record it, retries after {} will not be deduplicated",
+                    id, idempotencyKey, lockTtl, e);
+        }
+        return id;
+    }
+
+    @Override
+    public void destroy() {
+        lockExtender.shutdownNow();
+    }
+
+    private ScheduledFuture<?> extendWhileRunning(String key, String lockValue) {
+        final long periodMillis = Math.max(1, lockTtl.toMillis() / 3);
+        return lockExtender.scheduleAtFixedRate(() -> extendLock(key, lockValue), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void extendLock(String key, String lockValue) {
+        try {
+            redisOperations.execute(EXTEND_LOCK_SCRIPT, List.of(key), lockValue, String.valueOf(lockTtl.toMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to extend idempotency lock : {}", key, e);
+        }
+    }
+
+    private long getRecordedId(String key, String idempotencyKey, String requestHash) {
+        final String recorded = redisOperations.opsForValue().get(key);
+        if (recorded == null) {
+            throw inProgress();
+        }
+        final int separator = recorded.indexOf(SEPARATOR);
+        if (!requestHash.equals(recorded.substring(0, separator))) {
+            throw new IdempotencyKeyReuseException(List.of(
+                    new FieldError("Idempotency-Key", "Idempotency key was already used with a different request.")));
+        }
+        final String recordedId = recorded.substring(separator + 1);
+        if (IN_PROGRESS.equals(recordedId)) {
+            throw inProgress();
+        }
+        log.info("Replaying result for idempotency key : {}", idempotencyKey);
+        return Long.parseLong(recordedId);
+    }
+
+    private static IdempotencyConflictException inProgress() {
+        return new IdempotencyConflictException(List.of(
+                new FieldError("Idempotency-Key", "Request with the same idempotency key is still in progress.")));
+    }
+
+    private String hash(Object request) {
+        try {
+            return Hashing.sha256().hashString(objectMapper.writeValueAsString(request), StandardCharsets.UTF_8).toString();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request for idempotency key " + request, e);
+        }
+    }
+
+}
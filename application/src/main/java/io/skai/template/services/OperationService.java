@@ -0,0 +1,15 @@
+package io.skai.template.services;
+
+import io.skai.template.dataaccess.entities.Operation;
+
+public interface OperationService {
+
+    String create();
+
+    void complete(String operationId, long entityId);
+
+    void fail(String operationId, String error);
+
+    Operation findById(String operationId);
+
+}
@@ -0,0 +1,88 @@
+package io.skai.template.services;
+
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.config.rabbit.WriteCommandConfig;
+import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.Operation;
+import io.skai.template.dataaccess.entities.OperationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service("operationService")
+@Slf4j
+@RequiredArgsConstructor
+public class OperationServiceImpl implements OperationService {
+
+    private static final String KEY_PREFIX = "operation:";
+    private static final String STATUS_FIELD = "status";
+    private static final String ENTITY_ID_FIELD = "entity_id";
+    private static final String ERROR_FIELD = "error";
+
+    private final RedisOperations<String, String> redisOperations;
+    private final WriteCommandConfig writeCommandConfig;
+
+    @Override
+    public String create() {
+        final String operationId = UUID.randomUUID().toString();
+        save(operationId, Map.of(STATUS_FIELD, OperationStatus.PENDING.name()));
+        return operationId;
+    }
+
+    @Override
+    public void complete(String operationId, long entityId) {
+        save(operationId, Map.of(
+                STATUS_FIELD, OperationStatus.COMPLETED.name(),
+                ENTITY_ID_FIELD, String.valueOf(entityId)
+        ));
+    }
+
+    @Override
+    public void fail(String operationId, String error) {
+        save(operationId, Map.of(
+                STATUS_FIELD, OperationStatus.FAILED.name(),
+                ERROR_FIELD, Objects.toString(error, "")
+        ));
+    }
+
+    @Override
+    public Operation findById(String operationId) {
+        final Map<String, String> fields = redisOperations.<String, String>opsForHash().entries(getKey(operationId));
+        if (fields.isEmpty()) {
+            throw new FieldValidationException(null, List.of(new FieldError("id", "Operation not found or expired.")));
+        }
+        return Operation.builder()
+                .id(operationId)
+                .status(OperationStatus.valueOf(fields.get(STATUS_FIELD)))
+                .entityId(Optional.ofNullable(fields.get(ENTITY_ID_FIELD)).map(Long::valueOf).orElse(null))
+                .error(fields.get(ERROR_FIELD))
+                .build();
+    }
+
+    private void save(String operationId, Map<String, String> fields) {
+        final String key = getKey(operationId);
+        redisOperations.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                final RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                stringOperations.<String, String>opsForHash().putAll(key, fields);
+                stringOperations.expire(key, writeCommandConfig.getOperationTtl());
+                return null;
+            }
+        });
+    }
+
+    private String getKey(String operationId) {
+        return KEY_PREFIX + operationId;
+    }
+
+}
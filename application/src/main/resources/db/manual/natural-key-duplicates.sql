@@ -0,0 +1,28 @@
+-- Manual, reviewed step before the "campaign ks_name name unique index" and
+-- "ad_groups campaign_id name unique index" changeSets; Liquibase halts while these reports return rows.
+-- Not part of the changelog: run the reports, agree on the cleanup with the data owners, then apply it by hand.
+
+-- Report: duplicate campaigns per (ks_name, name), compared with the column collation like the unique index.
+SELECT ks_name, name, COUNT(*) AS copies, GROUP_CONCAT(id ORDER BY id) AS ids
+FROM campaign
+GROUP BY ks_name, name
+HAVING COUNT(*) > 1;
+
+-- Report: duplicate ad groups per (campaign_id, name).
+SELECT campaign_id, name, COUNT(*) AS copies, GROUP_CONCAT(id ORDER BY id) AS ids
+FROM ad_groups
+GROUP BY campaign_id, name
+HAVING COUNT(*) > 1;
+
+-- Cleanup example, only once the reports have been reviewed: keeps the oldest row of each duplicate and suffixes
+-- the others with their id. Merging or deleting the duplicates may be the right call instead.
+--
+-- UPDATE campaign c
+-- JOIN (SELECT ks_name, name, MIN(id) AS kept_id FROM campaign GROUP BY ks_name, name HAVING COUNT(*) > 1) d
+--   ON c.ks_name = d.ks_name AND c.name = d.name AND c.id <> d.kept_id
+-- SET c.name = CONCAT(LEFT(c.name, 230), ' #', c.id);
+--
+-- UPDATE ad_groups a
+-- JOIN (SELECT campaign_id, name, MIN(id) AS kept_id FROM ad_groups GROUP BY campaign_id, name HAVING COUNT(*) > 1) d
+--   ON a.campaign_id = d.campaign_id AND a.name = d.name AND a.id <> d.kept_id
+-- SET a.name = CONCAT(LEFT(a.name, 230), ' #', a.id);
@@ -0,0 +1,136 @@
+package io.skai.template.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.config.redis.RedisWritePolicyConfig;
+import io.skai.template.rabbit.BrokerDetailsFactory;
+import io.skai.template.rabbit.consumer.KjobsterConsumer;
+import io.skai.template.rabbit.messagehandler.ExampleMessageHandler;
+import io.skai.template.redis.RedisValueWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures how many messages per second {@link ExampleMessageHandler} behind a {@link KjobsterConsumer} sustains, with
+ * an in-process broker instead of rabbit. Run with {@code ./gradlew :application:benchmark}, tuning it through
+ * {@code -Dbenchmark.*} properties; {@code -Dbenchmark.redis=local} writes to the redis on localhost instead of the
+ * in-memory stand-in, whose round trip is simulated by {@code benchmark.redisRoundTripMicros}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConsumerThroughputBenchmark {
+
+    private static final int MESSAGES = Integer.getInteger("benchmark.messages", 100_000);
+    private static final int WARMUP_MESSAGES = Integer.getInteger("benchmark.warmupMessages", 10_000);
+    private static final int DISTINCT_KEYS = Integer.getInteger("benchmark.distinctKeys", 1_000);
+    private static final int[] CONCURRENCY = Arrays.stream(System.getProperty("benchmark.concurrency", "1,8,32").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batchSize", 8);
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(Long.getLong("benchmark.batchWindowMillis", 10));
+    private static final String REDIS = System.getProperty("benchmark.redis", "embedded");
+    private static final long REDIS_ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(Long.getLong("benchmark.redisRoundTripMicros", 200));
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisValueWriter redisValueWriter;
+
+    @BeforeEach
+    public void init() {
+        redisValueWriter = "local".equals(REDIS) ? localRedis() : inMemoryRedis();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    public void measureExampleMessageHandlerThroughput() throws Exception {
+        log.info("Benchmarking {} messages over {} keys, batch size : {}, batch window : {}, redis : {}",
+                MESSAGES, DISTINCT_KEYS, BATCH_SIZE, BATCH_WINDOW, REDIS);
+        for (int concurrency : CONCURRENCY) {
+            final InProcessJobsterBroker.Result result = run(concurrency);
+
+            log.info(String.format("workers=%d throughput=%.0f msg/s p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus failures=%d",
+                    concurrency, result.throughput(), result.percentileMicros(50), result.percentileMicros(90),
+                    result.percentileMicros(99), result.percentileMicros(99.9), result.percentileMicros(100),
+                    result.failures()));
+            assertThat(result.failures(), is(0L));
+        }
+    }
+
+    private InProcessJobsterBroker.Result run(int concurrency) throws InterruptedException {
+        final RabbitConsumerConfig consumerConfig = new RabbitConsumerConfig();
+        consumerConfig.setName("exampleConsumer");
+        consumerConfig.setQueueName("benchmark-queue");
+        consumerConfig.setBindingKey("benchmark-key");
+        consumerConfig.setNumOfListeners(concurrency);
+        consumerConfig.setBatchSize(BATCH_SIZE);
+        consumerConfig.setBatchWindow(BATCH_WINDOW);
+        final RabbitConfig rabbitConfig = new RabbitConfig();
+        rabbitConfig.setConsumers(List.of(consumerConfig));
+
+        final InProcessJobsterBroker broker = new InProcessJobsterBroker(concurrency);
+        final ExampleMessageHandler messageHandler = new ExampleMessageHandler(redisValueWriter, consumerConfig);
+        final KjobsterConsumer consumer = new KjobsterConsumer(new BrokerDetailsFactory(), rabbitConfig, consumerConfig, broker.jobsterApi(), messageHandler);
+        consumer.setBeanName("benchmarkConsumer");
+        consumer.start();
+        try {
+            broker.run(WARMUP_MESSAGES, DISTINCT_KEYS);
+            return broker.run(MESSAGES, DISTINCT_KEYS);
+        } finally {
+            consumer.stop();
+            messageHandler.destroy();
+        }
+    }
+
+    private RedisValueWriter localRedis() {
+        connectionFactory = new LettuceConnectionFactory(System.getProperty("benchmark.redisHost", "localhost"),
+                Integer.getInteger("benchmark.redisPort", 6379));
+        connectionFactory.afterPropertiesSet();
+        final RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+
+        final RedisWritePolicyConfig writePolicyConfig = new RedisWritePolicyConfig();
+        writePolicyConfig.setDefaultTtl(Duration.ofMinutes(10));
+        writePolicyConfig.setCompressionThreshold(Integer.getInteger("benchmark.compressionThreshold", 1024));
+        return new RedisValueWriter(redisTemplate, writePolicyConfig, new SimpleMeterRegistry());
+    }
+
+    private static RedisValueWriter inMemoryRedis() {
+        final Map<String, String> store = new ConcurrentHashMap<>();
+        final RedisValueWriter redisValueWriter = mock(RedisValueWriter.class);
+        doAnswer(invocation -> {
+            LockSupport.parkNanos(REDIS_ROUND_TRIP_NANOS);
+            store.putAll(invocation.getArgument(0));
+            return null;
+        }).when(redisValueWriter).writeAll(anyMap());
+        return redisValueWriter;
+    }
+}
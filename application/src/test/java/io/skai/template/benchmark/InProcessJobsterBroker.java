@@ -0,0 +1,116 @@
+package io.skai.template.benchmark;
+
+import com.kenshoo.kjobster.api.Consumer;
+import com.kenshoo.kjobster.api.JobsterApi;
+import com.kenshoo.kjobster.api.MessageHandler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stands in for the broker behind {@link JobsterApi}: every consumer started through {@link #jobsterApi()} gets a fixed
+ * pool of worker threads taking messages from an in-memory queue, so a handler can be driven without rabbit.
+ */
+class InProcessJobsterBroker {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final int workers;
+    private final BlockingQueue<Map.Entry<String, String>> queue = new LinkedBlockingQueue<>();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile CountDownLatch remaining = new CountDownLatch(0);
+    private volatile long[] latencies = new long[0];
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    InProcessJobsterBroker(int workers) {
+        this.workers = workers;
+    }
+
+    JobsterApi jobsterApi() {
+        final JobsterApi jobsterApi = mock(JobsterApi.class);
+        when(jobsterApi.startConsumer(any(), any())).thenAnswer(invocation -> startConsumer(invocation.getArgument(1)));
+        return jobsterApi;
+    }
+
+    /**
+     * Publishes the messages and blocks until all of them are handled.
+     */
+    Result run(int messages, int distinctKeys) throws InterruptedException {
+        latencies = new long[messages];
+        recorded.set(0);
+        failures.reset();
+        remaining = new CountDownLatch(messages);
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            queue.add(Map.entry("job-" + (i % distinctKeys), "message-" + i));
+        }
+        remaining.await();
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long[] sortedLatencies = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sortedLatencies);
+        return new Result(messages, elapsedNanos, sortedLatencies, failures.sum());
+    }
+
+    private Consumer startConsumer(MessageHandler messageHandler) {
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.submit(() -> work(messageHandler));
+        }
+        final Consumer consumer = mock(Consumer.class);
+        doAnswer(invocation -> {
+            executor.shutdownNow();
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return null;
+        }).when(consumer).shutDown();
+        return consumer;
+    }
+
+    private void work(MessageHandler messageHandler) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Map.Entry<String, String> message = queue.take();
+                final long startNanos = System.nanoTime();
+                try {
+                    messageHandler.handleMessage(message.getValue(), Optional.of(message.getKey()));
+                } catch (RuntimeException e) {
+                    failures.increment();
+                }
+                final int index = recorded.getAndIncrement();
+                if (index < latencies.length) {
+                    latencies[index] = System.nanoTime() - startNanos;
+                }
+                remaining.countDown();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record Result(int messages, long elapsedNanos, long[] sortedLatencies, long failures) {
+
+        double throughput() {
+            return messages / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        long percentileMicros(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[Math.max(0, index)]);
+        }
+    }
+}
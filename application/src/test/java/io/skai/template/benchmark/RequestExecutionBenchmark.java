@@ -0,0 +1,114 @@
+package io.skai.template.benchmark;
+
+import io.skai.template.Application;
+import io.skai.template.config.threads.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares throughput and latency of real HTTP requests against the application started once with
+ * {@code virtual-threads.enabled=false} and once with {@code true}. Requests go to {@code benchmark.path}, by default
+ * the health endpoint with its cache turned off, so every request pings MySQL and redis through the full filter chain.
+ * {@code benchmark.concurrency} requests are kept in flight and latency is measured from sending the request, so it
+ * includes time spent waiting for a Tomcat thread. Needs the same MySQL, redis and rabbit as the integration tests; run
+ * with {@code ./gradlew :application:benchmark -PruntimeJavaVersion=21 --tests '*RequestExecutionBenchmark'}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RequestExecutionBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmupRequests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final String PATH = System.getProperty("benchmark.path", "/actuator/health");
+
+    @Test
+    public void comparePlatformAndVirtualThreadRequestExecution() throws InterruptedException {
+        assumeTrue(VirtualThreads.isSupported(), "Virtual threads need Java 21, run with -PruntimeJavaVersion=21");
+        log.info("Benchmarking {} requests to {} with {} in flight", REQUESTS, PATH, CONCURRENCY);
+
+        report("platform", false);
+        report("virtual", true);
+    }
+
+    private void report(String mode, boolean virtualThreads) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--virtual-threads.enabled=" + virtualThreads,
+                        "--management.endpoint.health.cache.time-to-live=0ms")) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final URI uri = URI.create("http://localhost:" + port + PATH);
+            final HttpClient httpClient = HttpClient.newHttpClient();
+
+            run(httpClient, uri, WARMUP_REQUESTS);
+            final RequestResult result = run(httpClient, uri, REQUESTS);
+
+            log.info(String.format("mode=%s throughput=%.0f req/s p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus failures=%d",
+                    mode, result.throughput(), result.percentileMicros(50), result.percentileMicros(90),
+                    result.percentileMicros(99), result.percentileMicros(99.9), result.percentileMicros(100),
+                    result.failures()));
+            assertThat(result.failures(), is(0L));
+        }
+    }
+
+    private static RequestResult run(HttpClient httpClient, URI uri, int requests) throws InterruptedException {
+        final long[] latencies = new long[requests];
+        final AtomicInteger recorded = new AtomicInteger();
+        final LongAdder failures = new LongAdder();
+        final CountDownLatch remaining = new CountDownLatch(requests);
+        final Semaphore inFlight = new Semaphore(CONCURRENCY);
+        final HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            final long sentNanos = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            failures.increment();
+                        }
+                        latencies[recorded.getAndIncrement()] = System.nanoTime() - sentNanos;
+                        inFlight.release();
+                        remaining.countDown();
+                    });
+        }
+        remaining.await();
+        final long elapsedNanos = System.nanoTime() - startNanos;
+
+        Arrays.sort(latencies);
+        return new RequestResult(requests, elapsedNanos, latencies, failures.sum());
+    }
+
+    private record RequestResult(int requests, long elapsedNanos, long[] sortedLatencies, long failures) {
+
+        double throughput() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        long percentileMicros(double percentile) {
+            final int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[Math.max(0, index)]);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.skai.template.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.skai.template.config.tracing.RequestTraceIdHandler;
+import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+class WebMvcConfigTest {
+
+    private final WebMvcConfig webMvcConfig = new WebMvcConfig(mock(RequestTraceIdHandler.class), Jackson2ObjectMapperBuilder.json());
+
+    @Test
+    void binaryConvertersAppendedAfterJson() {
+        final List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(
+                new MappingJackson2HttpMessageConverter(),
+                new MappingJackson2SmileHttpMessageConverter()
+        ));
+
+        webMvcConfig.extendMessageConverters(converters);
+
+        assertThat(converters, contains(
+                instanceOf(MappingJackson2HttpMessageConverter.class),
+                instanceOf(MappingJackson2SmileHttpMessageConverter.class),
+                instanceOf(MappingJackson2CborHttpMessageConverter.class)
+        ));
+        assertThat(converters.get(1).getSupportedMediaTypes(), hasItem(MediaType.valueOf("application/x-jackson-smile")));
+        assertThat(converters.get(2).getSupportedMediaTypes(), hasItem(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void binaryConvertersWriteSameTreeAsJson() throws Exception {
+        final List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        webMvcConfig.extendMessageConverters(converters);
+        final Campaign campaign = Campaign.builder()
+                .id(1L)
+                .name("name")
+                .status(Status.ACTIVE)
+                .createDate(LocalDateTime.of(2022, 10, 1, 12, 30))
+                .build();
+        final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        for (HttpMessageConverter<?> converter : converters) {
+            final ObjectMapper binaryMapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+
+            assertThat(binaryMapper.readTree(binaryMapper.writeValueAsBytes(campaign)),
+                    is(jsonMapper.readTree(jsonMapper.writeValueAsBytes(campaign))));
+        }
+    }
+}
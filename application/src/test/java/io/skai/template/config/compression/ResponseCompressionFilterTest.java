@@ -0,0 +1,140 @@
+package io.skai.template.config.compression;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ResponseCompressionFilterTest {
+
+    private static final String CACHE_HITS_METRIC_NAME = new MetricNameBuilder(ResponseCompressionFilter.class).name("cache_hits");
+    private static final String LARGE_BODY = "{\"entities\":[" + "{\"id\":1,\"name\":\"campaign\"},".repeat(200) + "{}]}";
+    private static final String SMALL_BODY = "{\"entities\":[]}";
+
+    private MeterRegistry meterRegistry;
+    private ResponseCompressionFilter compressionFilter;
+
+    @BeforeEach
+    void init() {
+        final ResponseCompressionConfig compressionConfig = new ResponseCompressionConfig();
+        compressionConfig.setEnabled(true);
+        compressionConfig.setMinResponseSize(DataSize.ofKilobytes(1));
+        compressionConfig.setMimeTypes(List.of(MediaType.APPLICATION_JSON_VALUE));
+        compressionConfig.setExcludedPaths(List.of("/actuator/**"));
+        compressionConfig.setCacheSize(DataSize.ofMegabytes(1));
+        compressionConfig.setMaxCacheableSize(DataSize.ofKilobytes(64));
+        meterRegistry = new SimpleMeterRegistry();
+        compressionFilter = new ResponseCompressionFilter(compressionConfig, meterRegistry);
+    }
+
+    @Test
+    void largeJsonResponseGzipped() throws Exception {
+        final MockHttpServletResponse response = filter(gzipRequest(), LARGE_BODY, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+        assertThat(response.getHeader(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+        assertThat(response.getContentAsByteArray().length, lessThan(LARGE_BODY.length()));
+        assertThat(gunzip(response.getContentAsByteArray()), is(LARGE_BODY));
+    }
+
+    @Test
+    void smallResponseLeftPlain() throws Exception {
+        final MockHttpServletResponse response = filter(gzipRequest(), SMALL_BODY, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), is(SMALL_BODY));
+    }
+
+    @Test
+    void otherMimeTypeLeftPlain() throws Exception {
+        final MockHttpServletResponse response = filter(gzipRequest(), LARGE_BODY, MediaType.TEXT_HTML_VALUE);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), is(LARGE_BODY));
+    }
+
+    @Test
+    void responseLeftPlainWhenClientDoesNotAcceptGzip() throws Exception {
+        final MockHttpServletResponse response = filter(new MockHttpServletRequest("GET", "/api/v1/campaign/"), LARGE_BODY, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), is(LARGE_BODY));
+    }
+
+    @Test
+    void actuatorResponseLeftPlain() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        final MockHttpServletResponse response = filter(request, LARGE_BODY, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), is(LARGE_BODY));
+    }
+
+    @Test
+    void otherMimeTypeStreamedWithoutBuffering() throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AtomicBoolean committedWhileHandling = new AtomicBoolean();
+
+        compressionFilter.doFilter(gzipRequest(), response, (servletRequest, servletResponse) -> {
+            servletResponse.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            servletResponse.getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+            servletResponse.flushBuffer();
+            committedWhileHandling.set(response.isCommitted());
+        });
+
+        assertThat(committedWhileHandling.get(), is(true));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getContentAsString(), is(LARGE_BODY));
+    }
+
+    @Test
+    void repeatedResponseServedFromPrecompressedCache() throws Exception {
+        final MockHttpServletResponse first = filter(gzipRequest(), LARGE_BODY, MediaType.APPLICATION_JSON_VALUE);
+        final MockHttpServletResponse second = filter(gzipRequest(), LARGE_BODY, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(second.getContentAsByteArray(), is(first.getContentAsByteArray()));
+        assertThat(meterRegistry.get(CACHE_HITS_METRIC_NAME).counter().count(), is(1.0));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, String body, String contentType) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final FilterChain chain = (servletRequest, servletResponse) -> {
+            servletResponse.setContentType(contentType);
+            servletResponse.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+
+        compressionFilter.doFilter(request, response, chain);
+
+        return response;
+    }
+
+    private static MockHttpServletRequest gzipRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/campaign/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return request;
+    }
+
+    private static String gunzip(byte[] compressed) throws Exception {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.skai.template.config.threads;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FetchExecutorTest {
+
+    private static final String QUEUE_METRIC_NAME = new MetricNameBuilder(FetchExecutor.class).name("queue");
+    private static final String REJECTED_METRIC_NAME = new MetricNameBuilder(FetchExecutor.class).name("rejected");
+
+    private MeterRegistry meterRegistry;
+    private FetchExecutor fetchExecutor;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        fetchExecutor = new FetchExecutor(1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        MDC.clear();
+        fetchExecutor.destroy();
+    }
+
+    @Test
+    void fetchRunsOnExecutorThread() throws Exception {
+        final String threadName = fetchExecutor.supply(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertThat(threadName, is("fetch-1"));
+    }
+
+    @Test
+    void callerMdcCarriedToFetch() throws Exception {
+        MDC.put("traceId", "trace-1");
+
+        final String traceId = fetchExecutor.supply(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS);
+
+        assertThat(traceId, is("trace-1"));
+    }
+
+    @Test
+    void fetchRejectedWhenQueueFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<Boolean> running = fetchExecutor.supply(() -> {
+            started.countDown();
+            return await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Boolean> queued = fetchExecutor.supply(() -> true);
+
+        assertThrows(FetchRejectedException.class, () -> fetchExecutor.supply(() -> true));
+        assertThat(meterRegistry.get(QUEUE_METRIC_NAME).gauge().value(), is(1.0));
+        assertThat(meterRegistry.get(REJECTED_METRIC_NAME).counter().count(), is(1.0));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(queued.get(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -85,4 +87,20 @@ class RequestTraceIdHandlerTest {
 
         assertThat(MDC.get(TRACE_ID), is(notNullValue()));
     }
+
+    @Test
+    void keepGeneratedTraceIdOnAsyncDispatch() {
+        final MockHttpServletRequest asyncRequest = new MockHttpServletRequest();
+        final MockHttpServletResponse asyncResponse = new MockHttpServletResponse();
+
+        requestTraceIdHandler.preHandle(asyncRequest, asyncResponse, session);
+        final String generatedTraceId = MDC.get(TRACE_ID);
+        requestTraceIdHandler.afterConcurrentHandlingStarted(asyncRequest, asyncResponse, session);
+
+        requestTraceIdHandler.preHandle(asyncRequest, asyncResponse, session);
+
+        assertThat(MDC.get(TRACE_ID), is(generatedTraceId));
+        assertThat(asyncResponse.getHeader(TRACE_ID_HEADER), is(generatedTraceId));
+        requestTraceIdHandler.afterCompletion(asyncRequest, asyncResponse, session, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package io.skai.template.controller;
+
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.config.threads.FetchExecutor;
+import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
+import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.services.CampaignCommandService;
+import io.skai.template.services.CampaignService;
+import io.skai.template.services.FilterQueryParser;
+import io.skai.template.services.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CampaignControllerTest {
+
+    private static final long CAMPAIGN_ID = 3L;
+    private static final LocalDateTime LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 0, 0, 123_456_000);
+    private static final LocalDateTime UPDATED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 0, 0, 654_321_000);
+    private static final String ETAG = "\"2022-10-01T12:00:00.123456\"";
+    private static final String UPDATED_ETAG = "\"2022-10-01T12:00:00.654321\"";
+    private static final String CAMPAIGN_JSON = "{\"name\":\"name\",\"ks_name\":\"ks_name\",\"status\":\"ACTIVE\"}";
+
+    @Mock
+    private CampaignService campaignService;
+    @Mock
+    private CampaignCommandService campaignCommandService;
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private FilterQueryParser filterQueryParser;
+    @Mock
+    private FetchExecutor fetchExecutor;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void init() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new CampaignController(campaignService, campaignCommandService, idempotencyService, filterQueryParser, fetchExecutor))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void verifyFindCampaignSendsLastUpdatedAsETag() throws Exception {
+        when(campaignService.findById(CAMPAIGN_ID)).thenReturn(campaign(LAST_UPDATED));
+
+        mockMvc.perform(get("/api/v1/campaign/{id}", CAMPAIGN_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    @Test
+    public void verifyIfMatchLastUpdatedIsPassedToConditionalUpdateAndNewETagIsSent() throws Exception {
+        when(campaignService.update(eq(CAMPAIGN_ID), any(Campaign.class), eq(LAST_UPDATED))).thenReturn(UPDATED_LAST_UPDATED);
+
+        mockMvc.perform(updateRequest().header(IfMatchParser.IF_MATCH_HEADER, ETAG))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, UPDATED_ETAG));
+
+        verify(campaignService, never()).findById(CAMPAIGN_ID);
+    }
+
+    @Test
+    public void verifyWeakIfMatchIsPassedToConditionalUpdate() throws Exception {
+        when(campaignService.update(eq(CAMPAIGN_ID), any(Campaign.class), eq(LAST_UPDATED))).thenReturn(UPDATED_LAST_UPDATED);
+
+        mockMvc.perform(updateRequest().header(IfMatchParser.IF_MATCH_HEADER, "W/" + ETAG))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void verifyIfMatchAnyUpdatesExistingCampaignUnconditionally() throws Exception {
+        when(campaignService.update(eq(CAMPAIGN_ID), any(Campaign.class))).thenReturn(UPDATED_LAST_UPDATED);
+
+        mockMvc.perform(updateRequest().header(IfMatchParser.IF_MATCH_HEADER, "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, UPDATED_ETAG));
+
+        verify(campaignService, never()).update(eq(CAMPAIGN_ID), any(Campaign.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void verifyIfMatchAnyOnMissingCampaignFailsPrecondition() throws Exception {
+        when(campaignService.update(eq(CAMPAIGN_ID), any(Campaign.class)))
+                .thenThrow(new FieldValidationException(CAMPAIGN_ID, List.of(new FieldError("id", "Campaign not found or invalid."))));
+
+        mockMvc.perform(updateRequest().header(IfMatchParser.IF_MATCH_HEADER, "*"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void verifyMalformedIfMatchIsBadRequestWithoutUpdate() throws Exception {
+        mockMvc.perform(updateRequest().header(IfMatchParser.IF_MATCH_HEADER, "\"not-a-timestamp\""))
+                .andExpect(status().isBadRequest());
+
+        verify(campaignService, never()).update(eq(CAMPAIGN_ID), any(Campaign.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void verifyStaleIfMatchFailsPrecondition() throws Exception {
+        when(campaignService.update(eq(CAMPAIGN_ID), any(Campaign.class), eq(LAST_UPDATED)))
+                .thenThrow(new PreconditionFailedException(CAMPAIGN_ID, List.of(new FieldError("last_updated", "Campaign was modified by another request."))));
+
+        mockMvc.perform(updateRequest().header(IfMatchParser.IF_MATCH_HEADER, ETAG))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private static MockHttpServletRequestBuilder updateRequest() {
+        return put("/api/v1/campaign/{id}", CAMPAIGN_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(CAMPAIGN_JSON);
+    }
+
+    private static Campaign campaign(LocalDateTime lastUpdated) {
+        return Campaign.builder()
+                .id(CAMPAIGN_ID)
+                .name("name")
+                .ksName("ks_name")
+                .status(Status.ACTIVE)
+                .lastUpdated(lastUpdated)
+                .build();
+    }
+
+}
@@ -1,11 +1,15 @@
 package io.skai.template.dataaccess.dao;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import com.kenshoo.openplatform.apimodel.enums.FilterOperator;
 import io.skai.template.Application;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
 import io.skai.template.dataaccess.entities.Status;
 import io.skai.template.dataaccess.table.AdGroupTable;
 import io.skai.template.dataaccess.table.CampaignTable;
@@ -19,6 +23,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -40,7 +45,11 @@ class AdGroupDaoIntegrationTest {
     private static final long CAMPAIGN2_ID = 11L;
     private static final String CAMPAIGN_NAME = "campaign_name_test";
     private static final String ANOTHER_CAMPAIGN_NAME = "campaign_name_another_test";
+    private static final String DELETED_CAMPAIGN_NAME = "campaign_name_deleted_test";
+    private static final String ONE_MORE_CAMPAIGN_NAME = "campaign_name_one_more_test";
     private static final String CAMPAIGN_KS_NAME = "campaign_ks_name_test";
+    private static final String ANOTHER_CAMPAIGN_KS_NAME = "campaign_ks_name_another_fetch_test";
+    private static final String ONE_MORE_CAMPAIGN_KS_NAME = "campaign_ks_name_one_more_fetch_test";
     private static final String ANOTHER_CAMPAIGN_KS_NAME_THAT_CANNOT_BE_INCLUDED_BECAUSE_NOT_THAT_NAME_FOR_SEARCHING = "campaign_ks_name_another_test";
     private static final Status CAMPAIGN_STATUS = Status.ACTIVE;
     private static final long AD_GROUP_ID = 4L;
@@ -58,7 +67,7 @@ class AdGroupDaoIntegrationTest {
     private static final Status STATUS_ACTIVE = Status.ACTIVE;
     private static final Status CAMPAIGN_STATUS_THAT_CANNOT_BE_INCLUDED_BECAUSE__DELETED = Status.DELETED;
     private static final String FILTER_VALUES = "campaign_name_test";
-    private static final String QUERY_FIELD = "name";
+    private static final String QUERY_FIELD = "campaign.name";
     private static final FilterOperator FILTER_OPERATOR_EQUALS = FilterOperator.EQUALS;
     private static final List<String> API_FETCH_REQUEST_FIELDS = List.of("id", "campaignId", "status", "campaign.id", "campaign.name");
     private static final int API_FETCH_REQUEST_LIMIT = 3;
@@ -67,6 +76,8 @@ class AdGroupDaoIntegrationTest {
     private AdGroupDao adGroupDao;
     @Autowired
     private DSLContext dslContext;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     @BeforeEach
@@ -368,7 +379,7 @@ class AdGroupDaoIntegrationTest {
                         .build(),
                 Campaign.builder()
                         .id(CAMPAIGN1_ID)
-                        .name(CAMPAIGN_NAME)
+                        .name(DELETED_CAMPAIGN_NAME)
                         .ksName(CAMPAIGN_KS_NAME)
                         .status(CAMPAIGN_STATUS_THAT_CANNOT_BE_INCLUDED_BECAUSE__DELETED)
                         .build()
@@ -380,12 +391,16 @@ class AdGroupDaoIntegrationTest {
                     .build();
 
             createAdGroupWithIdAndDate(adGroup);
-            createAdGroupWithIdAndDate(adGroup);
+            createAdGroupWithIdAndDate(AdGroup.builder()
+                    .campaignId(adGroup.getCampaignId())
+                    .name(ANOTHER_AD_GROUP_NAME)
+                    .status(adGroup.getStatus())
+                    .build());
         });
 
         final Campaign campaign = Campaign.builder()
                 .id(CAMPAIGN2_ID)
-                .name(CAMPAIGN_NAME)
+                .name(ONE_MORE_CAMPAIGN_NAME)
                 .ksName(CAMPAIGN_KS_NAME)
                 .status(STATUS_PAUSED)
                 .build();
@@ -428,7 +443,11 @@ class AdGroupDaoIntegrationTest {
                     .build();
 
             createAdGroupWithIdAndDate(adGroup);
-            createAdGroupWithIdAndDate(adGroup);
+            createAdGroupWithIdAndDate(AdGroup.builder()
+                    .campaignId(adGroup.getCampaignId())
+                    .name(ANOTHER_AD_GROUP_NAME)
+                    .status(adGroup.getStatus())
+                    .build());
         });
 
         final List<AdGroup> result = adGroupDao.fetchNotDeletedByKsName(CAMPAIGN_KS_NAME);
@@ -454,14 +473,14 @@ class AdGroupDaoIntegrationTest {
                                 AdGroup.builder()
                                         .id(AD_GROUP_ANOTHER_ID)
                                         .campaignId(CAMPAIGN_ID)
-                                        .name(AD_GROUP_NAME)
+                                        .name(ANOTHER_AD_GROUP_NAME)
                                         .status(AD_GROUP_STATUS)
                                         .build()
                         )).build(),
                 Campaign.builder()
                         .id(CAMPAIGN_ANOTHER_ID)
                         .name(CAMPAIGN_NAME)
-                        .ksName(CAMPAIGN_KS_NAME)
+                        .ksName(ANOTHER_CAMPAIGN_KS_NAME)
                         .status(CAMPAIGN_STATUS)
                         .adGroups(List.of(
                                 AdGroup.builder()
@@ -474,7 +493,7 @@ class AdGroupDaoIntegrationTest {
                 Campaign.builder()
                         .id(CAMPAIGN_ID_WITHOUT_RELATIONS)
                         .name(CAMPAIGN_NAME)
-                        .ksName(CAMPAIGN_KS_NAME)
+                        .ksName(ONE_MORE_CAMPAIGN_KS_NAME)
                         .status(CAMPAIGN_STATUS)
                         .adGroups(List.of(
                                 AdGroup.builder()
@@ -488,24 +507,24 @@ class AdGroupDaoIntegrationTest {
 
         createCampaignsWithAdGroups(campaignsWithAdGroupsForCreate);
 
-        final List<QueryFilter<String>> queryFilters = List.of(
+        final List<QueryFilter<List<String>>> queryFilters = List.of(
                 new QueryFilter.Builder<String>()
                         .withField(QUERY_FIELD)
                         .withOperator(FILTER_OPERATOR_EQUALS)
-                        .withValues(FILTER_VALUES)
+                        .withValues(List.of(FILTER_VALUES))
                         .build()
         );
 
-        final ApiFetchRequest<QueryFilter<String>> apiFetchRequest = new ApiFetchRequest.Builder<QueryFilter<String>>()
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = new ApiFetchRequest.Builder<QueryFilter<List<String>>>()
                 .withFields(API_FETCH_REQUEST_FIELDS)
                 .withFilters(queryFilters)
                 .withLimit(API_FETCH_REQUEST_LIMIT)
                 .build();
 
-        final List<AdGroup> adGroups = adGroupDao.fetchAdGroups(apiFetchRequest);
+        final List<FetchedEntity> adGroups = adGroupDao.fetchAdGroups(apiFetchRequest);
 
         assertThat(adGroups.size(), is(API_FETCH_REQUEST_LIMIT));
-        assertThat(adGroups, containsInAnyOrder(
+        assertThat(toJson(adGroups), containsInAnyOrder(jsonOf(
                 AdGroup.builder()
                         .id(AD_GROUP_ID)
                         .campaignId(CAMPAIGN_ID)
@@ -536,7 +555,138 @@ class AdGroupDaoIntegrationTest {
                                 .build()
                         )
                         .build()
+        )));
+    }
+
+    @Test
+    public void verifyFetchAdGroupsReturnsOnlyAdGroupsMatchingIdInFilter() {
+        createCampaignsWithAdGroups(List.of(
+                Campaign.builder()
+                        .id(CAMPAIGN_ID)
+                        .name(CAMPAIGN_NAME)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_STATUS)
+                        .adGroups(List.of(
+                                AdGroup.builder()
+                                        .id(AD_GROUP_ID)
+                                        .campaignId(CAMPAIGN_ID)
+                                        .name(AD_GROUP_NAME)
+                                        .status(AD_GROUP_STATUS)
+                                        .build(),
+                                AdGroup.builder()
+                                        .id(AD_GROUP_ANOTHER_ID)
+                                        .campaignId(CAMPAIGN_ID)
+                                        .name(ANOTHER_AD_GROUP_NAME)
+                                        .status(AD_GROUP_STATUS)
+                                        .build(),
+                                AdGroup.builder()
+                                        .id(AD_GROUP_ONE_MORE_ID)
+                                        .campaignId(CAMPAIGN_ID)
+                                        .name(AD_GROUP_NAME_UPDATED)
+                                        .status(AD_GROUP_STATUS)
+                                        .build()
+                        )).build()
         ));
+
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = new ApiFetchRequest.Builder<QueryFilter<List<String>>>()
+                .withFields(API_FETCH_REQUEST_FIELDS)
+                .withFilters(List.of(
+                        new QueryFilter.Builder<String>()
+                                .withField("id")
+                                .withOperator(FilterOperator.IN)
+                                .withValues(List.of(String.valueOf(AD_GROUP_ID), String.valueOf(AD_GROUP_ONE_MORE_ID)))
+                                .build()
+                ))
+                .withLimit(API_FETCH_REQUEST_LIMIT)
+                .build();
+
+        final List<FetchedEntity> adGroups = adGroupDao.fetchAdGroups(apiFetchRequest);
+
+        assertThat(toJson(adGroups), containsInAnyOrder(jsonOf(
+                AdGroup.builder()
+                        .id(AD_GROUP_ID)
+                        .campaignId(CAMPAIGN_ID)
+                        .status(AD_GROUP_STATUS)
+                        .campaign(Campaign.builder()
+                                .id(CAMPAIGN_ID)
+                                .name(CAMPAIGN_NAME)
+                                .build()
+                        )
+                        .build(),
+                AdGroup.builder()
+                        .id(AD_GROUP_ONE_MORE_ID)
+                        .campaignId(CAMPAIGN_ID)
+                        .status(AD_GROUP_STATUS)
+                        .campaign(Campaign.builder()
+                                .id(CAMPAIGN_ID)
+                                .name(CAMPAIGN_NAME)
+                                .build()
+                        )
+                        .build()
+        )));
+    }
+
+    @Test
+    public void verifyAdGroupUpsertInsertsNewAndUpdatesExistingByCampaignIdAndName() {
+        final Campaign campaign = Campaign.builder()
+                .id(CAMPAIGN_ID)
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build();
+
+        createCampaign(campaign);
+
+        final long existingAdGroupId = createAdGroup(AdGroup.builder()
+                .campaignId(CAMPAIGN_ID)
+                .name(AD_GROUP_NAME)
+                .status(AD_GROUP_STATUS)
+                .build());
+
+        final List<Long> upsertedIds = adGroupDao.upsert(List.of(
+                AdGroup.builder()
+                        .campaignId(CAMPAIGN_ID)
+                        .name(AD_GROUP_NAME)
+                        .status(AD_GROUP_STATUS_UPDATED)
+                        .build(),
+                AdGroup.builder()
+                        .campaignId(CAMPAIGN_ID)
+                        .name(ANOTHER_AD_GROUP_NAME)
+                        .status(AD_GROUP_STATUS)
+                        .build()
+        ));
+
+        assertThat(upsertedIds.size(), is(2));
+        assertThat(upsertedIds.get(0), is(existingAdGroupId));
+        assertThat(upsertedIds.get(1), not(existingAdGroupId));
+        assertThat(adGroupDao.findById(existingAdGroupId).orElseThrow().getStatus(), is(AD_GROUP_STATUS_UPDATED));
+        assertThat(adGroupDao.findById(upsertedIds.get(1)).orElseThrow().getName(), is(ANOTHER_AD_GROUP_NAME));
+    }
+
+    @Test
+    public void verifyAdGroupUpsertRejectsDuplicateNaturalKeysInOneRequest() {
+        createCampaign(Campaign.builder()
+                .id(CAMPAIGN_ID)
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build());
+
+        final List<AdGroup> adGroups = List.of(
+                AdGroup.builder()
+                        .campaignId(CAMPAIGN_ID)
+                        .name(AD_GROUP_NAME)
+                        .status(AD_GROUP_STATUS)
+                        .build(),
+                AdGroup.builder()
+                        .campaignId(CAMPAIGN_ID)
+                        .name(AD_GROUP_NAME.toUpperCase())
+                        .status(AD_GROUP_STATUS_UPDATED)
+                        .build()
+        );
+
+        assertThrows(InvalidRequestException.class, () -> adGroupDao.upsert(adGroups));
+        assertThat(dslContext.fetchCount(AdGroupTable.TABLE), is(0));
     }
 
     private long createAdGroup(AdGroup adGroup) throws NullPointerException {
@@ -617,4 +767,16 @@ class AdGroupDaoIntegrationTest {
         return dslContext.lastID().longValue();
     }
 
-}
\ No newline at end of file
+    private List<JsonNode> toJson(List<FetchedEntity> fetchedEntities) {
+        return fetchedEntities.stream()
+                .map(fetchedEntity -> (JsonNode) objectMapper.valueToTree(fetchedEntity))
+                .toList();
+    }
+
+    private JsonNode[] jsonOf(Object... entities) {
+        return Arrays.stream(entities)
+                .map(entity -> (JsonNode) objectMapper.valueToTree(entity))
+                .toArray(JsonNode[]::new);
+    }
+
+}
@@ -1,14 +1,21 @@
 package io.skai.template.dataaccess.dao;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
 import com.kenshoo.openplatform.apimodel.QueryFilter;
 import com.kenshoo.openplatform.apimodel.enums.FilterOperator;
 import io.skai.template.Application;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.FetchedEntity;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.OutboxEvent;
 import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import io.skai.template.dataaccess.table.AdGroupTable;
 import io.skai.template.dataaccess.table.CampaignTable;
+import io.skai.template.dataaccess.table.OutboxTable;
 import org.jooq.DSLContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,11 +25,13 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ActiveProfiles("test")
 @SpringBootTest(classes = Application.class)
@@ -32,6 +41,8 @@ class CampaignDaoIntegrationTest {
     private CampaignDao campaignDao;
     @Autowired
     private DSLContext dslContext;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     private static final long CAMPAIGN_ID = 500L;
     private static final long CAMPAIGN_ANOTHER_ID = 632L;
@@ -44,7 +55,10 @@ class CampaignDaoIntegrationTest {
     private static final String CAMPAIGN_NAME_2 = "name-2";
     private static final String CAMPAIGN_NAME_3 = "name-3";
     private static final String AD_GROUP_NAME = "ad_group_name";
+    private static final String ANOTHER_AD_GROUP_NAME = "another_ad_group_name";
     private static final String CAMPAIGN_KS_NAME = "ks_name";
+    private static final String CAMPAIGN_KS_NAME_2 = "ks_name-2";
+    private static final String CAMPAIGN_KS_NAME_3 = "ks_name-3";
     private static final Status CAMPAIGN_STATUS = Status.ACTIVE;
     private static final Status AD_GROUP_STATUS = Status.ACTIVE;
     private static final String CAMPAIGN_UPDATED_NAME = "name_1";
@@ -63,6 +77,7 @@ class CampaignDaoIntegrationTest {
     public void init() {
         dslContext.truncate(CampaignTable.TABLE).execute();
         dslContext.truncate(AdGroupTable.TABLE).execute();
+        dslContext.truncate(OutboxTable.TABLE).execute();
     }
 
 
@@ -79,6 +94,48 @@ class CampaignDaoIntegrationTest {
         assertThat(numberOfRecords, is(1L));
     }
 
+    @Test
+    public void verifyCampaignsCreatedInOneInsertReturnIdsInRequestOrder() {
+        final List<Campaign> campaigns = List.of(
+                Campaign.builder().name(CAMPAIGN_NAME).ksName(CAMPAIGN_KS_NAME).status(CAMPAIGN_STATUS).build(),
+                Campaign.builder().name(CAMPAIGN_NAME_2).ksName(CAMPAIGN_KS_NAME_2).status(CAMPAIGN_UPDATED_STATUS).build()
+        );
+
+        final List<Long> campaignIds = campaignDao.createAll(campaigns);
+
+        assertThat(campaignIds.size(), is(2));
+        assertThat(campaignDao.findById(campaignIds.get(0)).orElseThrow().getName(), is(CAMPAIGN_NAME));
+        assertThat(campaignDao.findById(campaignIds.get(1)).orElseThrow().getName(), is(CAMPAIGN_NAME_2));
+        assertThat(dslContext.fetchCount(OutboxTable.TABLE, OutboxTable.TABLE.aggregateId.in(campaignIds)), is(2));
+    }
+
+    @Test
+    public void verifyCampaignWritesAddedToOutbox() {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build();
+
+        final long campaignId = createCampaign(campaign);
+        campaignDao.update(Campaign.builder()
+                .id(campaignId)
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build());
+        campaignDao.deleteById(campaignId);
+
+        final List<String> eventTypes = dslContext.select(OutboxTable.TABLE.eventType)
+                .from(OutboxTable.TABLE)
+                .where(OutboxTable.TABLE.aggregateType.eq(OutboxEvent.AggregateType.CAMPAIGN.name()))
+                .and(OutboxTable.TABLE.aggregateId.eq(campaignId))
+                .orderBy(OutboxTable.TABLE.id)
+                .fetch(OutboxTable.TABLE.eventType);
+
+        assertThat(eventTypes, contains(OutboxEvent.EventType.CREATED.name(), OutboxEvent.EventType.DELETED.name()));
+    }
+
     @Test
     public void verifyCampaignFindById() {
         final Campaign campaign = Campaign.builder()
@@ -127,10 +184,11 @@ class CampaignDaoIntegrationTest {
                 .status(CAMPAIGN_UPDATED_STATUS)
                 .build();
 
-        final long numberOfUpdatedRecords = campaignDao.update(campaignToUpdate);
+        final UpdateResult updateResult = campaignDao.update(campaignToUpdate);
         final Campaign campaignAfterUpdate = campaignDao.findById(campaignId).get();
 
-        assertThat(numberOfUpdatedRecords, is(1L));
+        assertThat(updateResult.changedRows(), is(1L));
+        assertThat(updateResult.lastUpdated(), is(campaignAfterUpdate.getLastUpdated()));
 
         assertThat(campaignBeforeUpdate.getId(), is(campaignAfterUpdate.getId()));
 
@@ -176,6 +234,29 @@ class CampaignDaoIntegrationTest {
         assertThat(campaignRecordAfterUpdate.getLastUpdated(), not(equalTo(campaignRecordBeforeUpdate.getLastUpdated())));
     }
 
+    @Test
+    public void verifyCampaignNotUpdatedWhenValuesUnchanged() {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build();
+
+        final long campaignId = createCampaignWithId(campaign);
+        final Campaign campaignBeforeUpdate = campaignDao.findById(campaignId).get();
+
+        final UpdateResult updateResult = campaignDao.update(Campaign.builder()
+                .id(campaignId)
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build());
+
+        assertThat(updateResult.changedRows(), is(0L));
+        assertThat(updateResult.lastUpdated(), is(campaignBeforeUpdate.getLastUpdated()));
+        assertThat(campaignDao.findById(campaignId).get().getLastUpdated(), is(campaignBeforeUpdate.getLastUpdated()));
+    }
+
     @Test
     public void verifyCampaignCreateDateWhenCreateCampaign() {
         final Campaign campaign = Campaign.builder()
@@ -200,9 +281,10 @@ class CampaignDaoIntegrationTest {
                 .status(CAMPAIGN_STATUS)
                 .build();
 
-        final long numberOfUpdatedRecords = campaignDao.update(campaignToUpdate);
+        final UpdateResult updateResult = campaignDao.update(campaignToUpdate);
 
-        assertThat(numberOfUpdatedRecords, is(0L));
+        assertThat(updateResult.changedRows(), is(0L));
+        assertThat(updateResult.lastUpdated(), is(nullValue()));
     }
 
     @Test
@@ -255,7 +337,7 @@ class CampaignDaoIntegrationTest {
                                 AdGroup.builder()
                                         .id(AD_GROUP_ANOTHER_ID)
                                         .campaignId(CAMPAIGN_ID)
-                                        .name(AD_GROUP_NAME)
+                                        .name(ANOTHER_AD_GROUP_NAME)
                                         .status(AD_GROUP_STATUS)
                                         .build()
                         )).build(),
@@ -294,9 +376,9 @@ class CampaignDaoIntegrationTest {
                 .withLimit(API_FETCH_REQUEST_LIMIT)
                 .build();
 
-        final List<Campaign> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
+        final List<FetchedEntity> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
 
-        assertThat(campaigns, containsInAnyOrder(
+        assertThat(toJson(campaigns), containsInAnyOrder(jsonOf(
                 Campaign.builder()
                         .id(CAMPAIGN_ID)
                         .name(CAMPAIGN_NAME)
@@ -311,7 +393,7 @@ class CampaignDaoIntegrationTest {
                                         .campaignId(CAMPAIGN_ID)
                                         .build()
                         )).build()
-        ));
+        )));
     }
 
     @Test
@@ -332,7 +414,7 @@ class CampaignDaoIntegrationTest {
                                 AdGroup.builder()
                                         .id(AD_GROUP_ANOTHER_ID)
                                         .campaignId(CAMPAIGN_ID)
-                                        .name(AD_GROUP_NAME)
+                                        .name(ANOTHER_AD_GROUP_NAME)
                                         .status(AD_GROUP_STATUS)
                                         .build()
                         )).build(),
@@ -371,9 +453,9 @@ class CampaignDaoIntegrationTest {
                 .withLimit(API_FETCH_REQUEST_LIMIT)
                 .build();
 
-        final List<Campaign> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
+        final List<FetchedEntity> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
 
-        assertThat(campaigns, containsInAnyOrder(
+        assertThat(toJson(campaigns), containsInAnyOrder(jsonOf(
                 Campaign.builder()
                         .id(CAMPAIGN_ID)
                         .name(CAMPAIGN_NAME)
@@ -388,7 +470,7 @@ class CampaignDaoIntegrationTest {
                                         .campaignId(CAMPAIGN_ID)
                                         .build()
                         )).build()
-        ));
+        )));
     }
 
     @Test
@@ -409,7 +491,7 @@ class CampaignDaoIntegrationTest {
                                 AdGroup.builder()
                                         .id(AD_GROUP_ANOTHER_ID)
                                         .campaignId(CAMPAIGN_ID)
-                                        .name(AD_GROUP_NAME)
+                                        .name(ANOTHER_AD_GROUP_NAME)
                                         .status(AD_GROUP_STATUS)
                                         .build()
                         )).build(),
@@ -448,9 +530,9 @@ class CampaignDaoIntegrationTest {
                 .withLimit(API_FETCH_REQUEST_LIMIT)
                 .build();
 
-        final List<Campaign> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
+        final List<FetchedEntity> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
 
-        assertThat(campaigns, containsInAnyOrder(
+        assertThat(toJson(campaigns), containsInAnyOrder(jsonOf(
                 Campaign.builder()
                         .id(CAMPAIGN_ID)
                         .name(CAMPAIGN_NAME)
@@ -465,7 +547,7 @@ class CampaignDaoIntegrationTest {
                                         .campaignId(CAMPAIGN_ID)
                                         .build()
                         )).build()
-        ));
+        )));
     }
 
     @Test
@@ -486,14 +568,14 @@ class CampaignDaoIntegrationTest {
                                 AdGroup.builder()
                                         .id(AD_GROUP_ANOTHER_ID)
                                         .campaignId(CAMPAIGN_ID)
-                                        .name(AD_GROUP_NAME)
+                                        .name(ANOTHER_AD_GROUP_NAME)
                                         .status(AD_GROUP_STATUS)
                                         .build()
                         )).build(),
                 Campaign.builder()
                         .id(CAMPAIGN_ANOTHER_ID)
                         .name(CAMPAIGN_NAME)
-                        .ksName(CAMPAIGN_KS_NAME)
+                        .ksName(CAMPAIGN_KS_NAME_2)
                         .status(CAMPAIGN_STATUS)
                         .adGroups(List.of(
                                 AdGroup.builder()
@@ -506,7 +588,7 @@ class CampaignDaoIntegrationTest {
                 Campaign.builder()
                         .id(CAMPAIGN_ONE_MORE_ID)
                         .name(CAMPAIGN_NAME)
-                        .ksName(CAMPAIGN_KS_NAME)
+                        .ksName(CAMPAIGN_KS_NAME_3)
                         .status(CAMPAIGN_STATUS)
                         .adGroups(List.of())
                         .build()
@@ -520,10 +602,10 @@ class CampaignDaoIntegrationTest {
                 .withLimit(API_FETCH_REQUEST_LIMIT)
                 .build();
 
-        final List<Campaign> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
+        final List<FetchedEntity> campaigns = campaignDao.fetchCampaigns(apiFetchRequest);
 
         assertThat(campaigns.size(), is(API_FETCH_REQUEST_LIMIT));
-        assertThat(campaigns, containsInAnyOrder(
+        assertThat(toJson(campaigns), containsInAnyOrder(jsonOf(
                 Campaign.builder()
                         .id(CAMPAIGN_ID)
                         .name(CAMPAIGN_NAME)
@@ -554,7 +636,102 @@ class CampaignDaoIntegrationTest {
                         .status(CAMPAIGN_STATUS)
                         .adGroups(List.of())
                         .build()
+        )));
+    }
+
+    @Test
+    public void verifyCampaignUpsertInsertsNewAndUpdatesExistingByKsNameAndName() {
+        final Campaign existingCampaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build();
+        final long existingCampaignId = createCampaignWithId(existingCampaign);
+
+        final List<Long> upsertedIds = campaignDao.upsert(List.of(
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME_2)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_STATUS)
+                        .build(),
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_UPDATED_STATUS)
+                        .build()
         ));
+
+        assertThat(upsertedIds.size(), is(2));
+        assertThat(upsertedIds.get(1), is(existingCampaignId));
+        assertThat(upsertedIds.get(0), not(existingCampaignId));
+        assertThat(campaignDao.findById(existingCampaignId).orElseThrow().getStatus(), is(CAMPAIGN_UPDATED_STATUS));
+        assertThat(campaignDao.findById(upsertedIds.get(0)).orElseThrow().getName(), is(CAMPAIGN_NAME_2));
+    }
+
+    @Test
+    public void verifyCampaignUpsertMatchesExistingNameWithTrailingSpaceAndDifferentCase() {
+        final long existingCampaignId = createCampaignWithId(Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build());
+
+        final List<Long> upsertedIds = campaignDao.upsert(List.of(
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME.toUpperCase() + " ")
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_UPDATED_STATUS)
+                        .build()
+        ));
+
+        assertThat(upsertedIds, contains(existingCampaignId));
+        assertThat(campaignDao.findById(existingCampaignId).orElseThrow().getStatus(), is(CAMPAIGN_UPDATED_STATUS));
+    }
+
+    @Test
+    public void verifyCampaignUpsertRejectsDuplicateNaturalKeysInOneRequest() {
+        final List<Campaign> campaigns = List.of(
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_STATUS)
+                        .build(),
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_UPDATED_STATUS)
+                        .build()
+        );
+
+        assertThrows(InvalidRequestException.class, () -> campaignDao.upsert(campaigns));
+        assertThat(dslContext.fetchCount(CampaignTable.TABLE), is(0));
+        assertThat(dslContext.fetchCount(OutboxTable.TABLE), is(0));
+    }
+
+    @Test
+    public void verifyCampaignUpsertDoesNotWriteOutboxEventForUnchangedCampaign() {
+        final long existingCampaignId = createCampaignWithId(Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(CAMPAIGN_STATUS)
+                .build());
+
+        final List<Long> upsertedIds = campaignDao.upsert(List.of(
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_STATUS)
+                        .build(),
+                Campaign.builder()
+                        .name(CAMPAIGN_NAME_2)
+                        .ksName(CAMPAIGN_KS_NAME)
+                        .status(CAMPAIGN_STATUS)
+                        .build()
+        ));
+
+        assertThat(upsertedIds.get(0), is(existingCampaignId));
+        assertThat(dslContext.fetchCount(OutboxTable.TABLE, OutboxTable.TABLE.aggregateId.eq(existingCampaignId)), is(0));
+        assertThat(dslContext.fetchCount(OutboxTable.TABLE, OutboxTable.TABLE.aggregateId.eq(upsertedIds.get(1))), is(1));
     }
 
     private long createCampaign(Campaign campaign) {
@@ -623,4 +800,16 @@ class CampaignDaoIntegrationTest {
                 .execute();
     }
 
-}
\ No newline at end of file
+    private List<JsonNode> toJson(List<FetchedEntity> fetchedEntities) {
+        return fetchedEntities.stream()
+                .map(fetchedEntity -> (JsonNode) objectMapper.valueToTree(fetchedEntity))
+                .toList();
+    }
+
+    private JsonNode[] jsonOf(Object... entities) {
+        return Arrays.stream(entities)
+                .map(entity -> (JsonNode) objectMapper.valueToTree(entity))
+                .toArray(JsonNode[]::new);
+    }
+
+}
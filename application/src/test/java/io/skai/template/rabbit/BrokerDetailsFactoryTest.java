@@ -2,6 +2,7 @@ package io.skai.template.rabbit;
 
 import com.kenshoo.kjobster.api.conf.BrokerDetails;
 import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @ExtendWith(MockitoExtension.class)
 public class BrokerDetailsFactoryTest {
@@ -16,32 +18,43 @@ public class BrokerDetailsFactoryTest {
     @InjectMocks
     public BrokerDetailsFactory factory;
     private RabbitConfig rabbitConfig;
+    private RabbitConsumerConfig consumerConfig;
 
     @BeforeEach
     public void init() {
         this.rabbitConfig = new RabbitConfig();
         rabbitConfig.setExchange("exchange");
-        rabbitConfig.setBindingKey("bindingKey");
         rabbitConfig.setHost("host");
         rabbitConfig.setPassword("password");
         rabbitConfig.setPort(8080);
-        rabbitConfig.setQueueName("queue");
         rabbitConfig.setUsername("user");
+        this.consumerConfig = new RabbitConsumerConfig();
+        consumerConfig.setBindingKey("bindingKey");
+        consumerConfig.setQueueName("queue");
 
     }
 
     @Test
     public void verifyFactoryCreatesCorrectBrokerDetails() {
-        BrokerDetails brokerDetails = factory.getBrokerDetails(rabbitConfig);
+        BrokerDetails brokerDetails = factory.getBrokerDetails(rabbitConfig, consumerConfig);
         assertEquals(rabbitConfig.getHost(), brokerDetails.getBrokerConnectionDetails().getHost());
         assertEquals(rabbitConfig.getPort(), brokerDetails.getBrokerConnectionDetails().getPort());
 
-        assertEquals(rabbitConfig.getBindingKey(), brokerDetails.getBrokerTopologyDetails().getBindingKey());
-        assertEquals(rabbitConfig.getQueueName(), brokerDetails.getBrokerTopologyDetails().getQueueName());
+        assertEquals(consumerConfig.getBindingKey(), brokerDetails.getBrokerTopologyDetails().getBindingKey());
+        assertEquals(consumerConfig.getQueueName(), brokerDetails.getBrokerTopologyDetails().getQueueName());
         assertEquals(rabbitConfig.getExchange(), brokerDetails.getBrokerTopologyDetails().getTopic());
 
         assertEquals(rabbitConfig.getUsername(), brokerDetails.getBrokerCredentials().getUserName());
         assertEquals(rabbitConfig.getPassword(), brokerDetails.getBrokerCredentials().getPassword());
     }
 
+    @Test
+    public void verifyProducerBrokerDetailsCarryOnlyTheExchange() {
+        BrokerDetails brokerDetails = factory.getProducerBrokerDetails(rabbitConfig);
+        assertEquals(rabbitConfig.getHost(), brokerDetails.getBrokerConnectionDetails().getHost());
+        assertEquals(rabbitConfig.getExchange(), brokerDetails.getBrokerTopologyDetails().getTopic());
+        assertNull(brokerDetails.getBrokerTopologyDetails().getQueueName());
+        assertNull(brokerDetails.getBrokerTopologyDetails().getBindingKey());
+    }
+
 }
@@ -24,6 +24,7 @@ import static org.hamcrest.Matchers.equalTo;
 class KjobsterConsumerIntegrationTest {
 
     private static final String TEST_MESSAGE = "test message";
+    private static final String CONSUMER_NAME = "exampleConsumer";
 
     @Autowired
     private JobsterApi jobsterApi;
@@ -38,7 +39,7 @@ class KjobsterConsumerIntegrationTest {
 
     @BeforeEach
     public void before() throws Exception {
-        this.producer = jobsterApi.getProducer(brokerDetailsFactory.getBrokerDetails(rabbitConfig),
+        this.producer = jobsterApi.getProducer(brokerDetailsFactory.getProducerBrokerDetails(rabbitConfig),
                 Optional.of(Duration.ofMinutes(1).toMillis()));
     }
 
@@ -46,7 +47,7 @@ class KjobsterConsumerIntegrationTest {
     void publishMessageAndVerifyItConsumed() throws Exception {
         String jobName = UUID.randomUUID().toString();
         JobMessage jobMessage = JobMessage.builder().withJobName(Optional.of(jobName)).withMessageBody(TEST_MESSAGE).build();
-        producer.publish(jobMessage, rabbitConfig.getBindingKey());
+        producer.publish(jobMessage, rabbitConfig.getConsumer(CONSUMER_NAME).getBindingKey());
         await().atMost(Duration.ofSeconds(10))
                 .until(() -> redisOperations.opsForValue().get(jobName), equalTo(TEST_MESSAGE));
     }
@@ -0,0 +1,100 @@
+package io.skai.template.rabbit.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MessageBatcherTest {
+
+    private static final Duration MAX_DELAY = Duration.ofMillis(200);
+
+    private final List<List<Integer>> flushedBatches = new CopyOnWriteArrayList<>();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void verifySubmitReturnsAfterItemFlushed() {
+        try (MessageBatcher<Integer> batcher = new MessageBatcher<>("test", 10, MAX_DELAY, flushedBatches::add)) {
+            batcher.submit(1);
+        }
+
+        assertThat(flushedBatches, is(List.of(List.of(1))));
+    }
+
+    @Test
+    public void verifyConcurrentSubmitsAreFlushedTogether() throws Exception {
+        final CountDownLatch firstFlushStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstFlush = new CountDownLatch(1);
+
+        try (MessageBatcher<Integer> batcher = new MessageBatcher<>("test", 10, MAX_DELAY, items -> {
+            if (items.contains(0)) {
+                firstFlushStarted.countDown();
+                await(releaseFirstFlush);
+            }
+            flushedBatches.add(items);
+        })) {
+            final Future<?> first = executorService.submit(() -> batcher.submit(0));
+            firstFlushStarted.await(5, TimeUnit.SECONDS);
+
+            final List<Future<?>> waiting = List.of(
+                    executorService.submit(() -> batcher.submit(1)),
+                    executorService.submit(() -> batcher.submit(2)),
+                    executorService.submit(() -> batcher.submit(3))
+            );
+            Thread.sleep(100);
+            releaseFirstFlush.countDown();
+
+            first.get(5, TimeUnit.SECONDS);
+            for (Future<?> future : waiting) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(flushedBatches.get(0), is(List.of(0)));
+        assertThat(flushedBatches.get(1), containsInAnyOrder(1, 2, 3));
+    }
+
+    @Test
+    public void verifySubmitFailsWhenFlushFails() {
+        try (MessageBatcher<Integer> batcher = new MessageBatcher<>("test", 10, MAX_DELAY, items -> {
+            throw new IllegalStateException("flush failed");
+        })) {
+            final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> batcher.submit(1));
+
+            assertThat(exception.getMessage(), is("flush failed"));
+        }
+    }
+
+    @Test
+    public void verifySubmitFailsWhenBatcherClosed() {
+        final MessageBatcher<Integer> batcher = new MessageBatcher<>("test", 10, MAX_DELAY, flushedBatches::add);
+        batcher.close();
+
+        assertThrows(IllegalStateException.class, () -> batcher.submit(1));
+        assertThat(flushedBatches, is(empty()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
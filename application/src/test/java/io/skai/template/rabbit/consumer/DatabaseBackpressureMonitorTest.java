@@ -0,0 +1,126 @@
+package io.skai.template.rabbit.consumer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.skai.template.config.rabbit.ConsumerBackpressureConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseBackpressureMonitorTest {
+
+    private static final int MAX_POOL_SIZE = 10;
+    private static final int SATURATED_CHECKS = 3;
+
+    @Mock
+    private KjobsterConsumer consumer;
+    @Mock
+    private KjobsterConsumer redisOnlyConsumer;
+    @Mock
+    private HikariDataSource dataSource;
+    @Mock
+    private HikariPoolMXBean pool;
+
+    private DatabaseBackpressureMonitor monitor;
+
+    @BeforeEach
+    public void init() throws Exception {
+        final ConsumerBackpressureConfig backpressureConfig = new ConsumerBackpressureConfig();
+        backpressureConfig.setPauseAboveUtilization(0.9);
+        backpressureConfig.setPauseAboveAwaitingThreads(2);
+        backpressureConfig.setPauseAfterSaturatedChecks(SATURATED_CHECKS);
+        backpressureConfig.setResumeBelowUtilization(0.5);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(dataSource);
+        lenient().when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        lenient().when(dataSource.getMaximumPoolSize()).thenReturn(MAX_POOL_SIZE);
+        when(consumer.hasDatabaseBackpressure()).thenReturn(true);
+        when(redisOnlyConsumer.hasDatabaseBackpressure()).thenReturn(false);
+        monitor = new DatabaseBackpressureMonitor(List.of(consumer, redisOnlyConsumer), dataSource, backpressureConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void verifyConsumersPausedWhenThreadsAwaitConnections() {
+        mockPool(5, 2);
+
+        checkRepeatedly(SATURATED_CHECKS);
+
+        verify(consumer).pause();
+    }
+
+    @Test
+    public void verifyConsumersPausedWhenPoolNearlyExhausted() {
+        mockPool(9, 0);
+
+        checkRepeatedly(SATURATED_CHECKS);
+
+        verify(consumer).pause();
+    }
+
+    @Test
+    public void verifyConsumersNotPausedOnShortSaturation() {
+        mockPool(10, 3);
+        checkRepeatedly(SATURATED_CHECKS - 1);
+
+        mockPool(3, 0);
+        monitor.check();
+
+        mockPool(10, 3);
+        checkRepeatedly(SATURATED_CHECKS - 1);
+
+        verify(consumer, never()).pause();
+    }
+
+    @Test
+    public void verifyConsumersWithoutDatabaseBackpressureNeverPaused() {
+        mockPool(10, 3);
+
+        checkRepeatedly(SATURATED_CHECKS);
+
+        verify(consumer).pause();
+        verify(redisOnlyConsumer, never()).pause();
+    }
+
+    @Test
+    public void verifyConsumersStayPausedUntilPoolDrainsBelowResumeThreshold() {
+        mockPool(10, 3);
+        checkRepeatedly(SATURATED_CHECKS);
+
+        mockPool(7, 0);
+        monitor.check();
+        verify(consumer, never()).resume();
+
+        mockPool(4, 0);
+        monitor.check();
+        verify(consumer).resume();
+        verify(consumer, times(1)).pause();
+    }
+
+    @Test
+    public void verifyNothingDoneWhenPoolHealthy() {
+        mockPool(3, 0);
+
+        monitor.check();
+
+        verify(consumer, never()).pause();
+        verify(consumer, never()).resume();
+    }
+
+    private void checkRepeatedly(int times) {
+        for (int i = 0; i < times; i++) {
+            monitor.check();
+        }
+    }
+
+    private void mockPool(int activeConnections, int awaitingThreads) {
+        when(pool.getActiveConnections()).thenReturn(activeConnections);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(awaitingThreads);
+    }
+}
@@ -0,0 +1,97 @@
+package io.skai.template.rabbit.consumer;
+
+import io.skai.template.config.rabbit.ConsumerAutoscalingConfig;
+import io.skai.template.rabbit.RabbitConnectionProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KjobsterConsumerAutoscalerTest {
+
+    private static final String CONSUMER_NAME = "exampleConsumer";
+    private static final String QUEUE_NAME = "example-queue";
+    private static final Duration TARGET_DRAIN_TIME = Duration.ofSeconds(30);
+
+    @Mock
+    private KjobsterConsumer consumer;
+    @Mock
+    private RabbitConnectionProvider rabbitConnectionProvider;
+
+    private KjobsterConsumerAutoscaler autoscaler;
+
+    @BeforeEach
+    public void init() {
+        final ConsumerAutoscalingConfig autoscalingConfig = new ConsumerAutoscalingConfig();
+        autoscalingConfig.setTargetDrainTime(TARGET_DRAIN_TIME);
+        autoscalingConfig.setCooldown(Duration.ofMinutes(1));
+        autoscaler = new KjobsterConsumerAutoscaler(List.of(consumer), rabbitConnectionProvider, autoscalingConfig);
+    }
+
+    @Test
+    public void verifyDesiredWorkersCoverBacklogWithinTargetDrainTime() {
+        assertThat(KjobsterConsumerAutoscaler.desiredWorkers(3_000, Duration.ofMillis(100), TARGET_DRAIN_TIME, 1, 32), is(10));
+    }
+
+    @Test
+    public void verifyDesiredWorkersAreClampedToBounds() {
+        assertThat(KjobsterConsumerAutoscaler.desiredWorkers(0, Duration.ofMillis(100), TARGET_DRAIN_TIME, 2, 32), is(2));
+        assertThat(KjobsterConsumerAutoscaler.desiredWorkers(1_000_000, Duration.ofMillis(100), TARGET_DRAIN_TIME, 2, 32), is(32));
+    }
+
+    @Test
+    public void verifyConsumerResizedWhenBacklogGrows() throws Exception {
+        mockConsumer(4);
+        when(consumer.drainAverageLatency()).thenReturn(Optional.of(Duration.ofMillis(100)));
+        when(rabbitConnectionProvider.getMessageCount(QUEUE_NAME)).thenReturn(3_000L);
+
+        autoscaler.autoscale();
+
+        verify(consumer).resize(10);
+    }
+
+    @Test
+    public void verifyConsumerNotResizedAgainDuringCooldown() throws Exception {
+        mockConsumer(4);
+        when(consumer.drainAverageLatency()).thenReturn(Optional.of(Duration.ofMillis(100)));
+        when(rabbitConnectionProvider.getMessageCount(QUEUE_NAME)).thenReturn(3_000L, 0L);
+
+        autoscaler.autoscale();
+        autoscaler.autoscale();
+
+        verify(consumer, times(1)).resize(anyInt());
+    }
+
+    @Test
+    public void verifyConsumerNotResizedWhenQueueDepthUnavailable() throws Exception {
+        mockConsumer(4);
+        when(consumer.drainAverageLatency()).thenReturn(Optional.of(Duration.ofMillis(100)));
+        when(rabbitConnectionProvider.getMessageCount(QUEUE_NAME)).thenThrow(new IOException("rabbit is down"));
+
+        autoscaler.autoscale();
+
+        verify(consumer, never()).resize(anyInt());
+    }
+
+    private void mockConsumer(int workers) {
+        when(consumer.isAutoscaled()).thenReturn(true);
+        when(consumer.isRunning()).thenReturn(true);
+        when(consumer.getName()).thenReturn(CONSUMER_NAME);
+        when(consumer.getQueueName()).thenReturn(QUEUE_NAME);
+        lenient().when(consumer.getWorkers()).thenReturn(workers);
+        lenient().when(consumer.getMinWorkers()).thenReturn(1);
+        lenient().when(consumer.getMaxWorkers()).thenReturn(32);
+    }
+}
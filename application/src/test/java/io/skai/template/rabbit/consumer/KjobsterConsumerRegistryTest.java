@@ -0,0 +1,161 @@
+package io.skai.template.rabbit.consumer;
+
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.rabbit.messagehandler.DedupingMessageHandler;
+import io.skai.template.rabbit.messagehandler.MeteredMessageHandler;
+import io.skai.template.rabbit.messagehandler.PartitionedMessageHandler;
+import io.skai.template.rabbit.retry.RetryingMessageHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KjobsterConsumerRegistryTest {
+
+    @Test
+    public void verifyConsumerRegisteredPerConfiguredQueue() {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("rabbit.host", "localhost")
+                .withProperty("rabbit.exchange", "test-exchange")
+                .withProperty("rabbit.consumers[0].name", "fastConsumer")
+                .withProperty("rabbit.consumers[0].handler", "fastHandler")
+                .withProperty("rabbit.consumers[0].queueName", "fast-queue")
+                .withProperty("rabbit.consumers[0].bindingKey", "fast-key")
+                .withProperty("rabbit.consumers[0].numOfListeners", "4")
+                .withProperty("rabbit.consumers[0].dedupeTtl", "1h")
+                .withProperty("rabbit.consumers[1].name", "slowConsumer")
+                .withProperty("rabbit.consumers[1].handler", "slowHandler")
+                .withProperty("rabbit.consumers[1].queueName", "slow-queue")
+                .withProperty("rabbit.consumers[1].bindingKey", "slow-key")
+                .withProperty("rabbit.consumers[1].numOfListeners", "1")
+                .withProperty("rabbit.consumers[1].retryDelays[0]", "1s")
+                .withProperty("rabbit.consumers[1].retryDelays[1]", "10s")
+                .withProperty("rabbit.consumers[1].partitions", "4");
+        final SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+        final KjobsterConsumerRegistry consumerRegistry = new KjobsterConsumerRegistry();
+        consumerRegistry.setEnvironment(environment);
+
+        consumerRegistry.postProcessBeanDefinitionRegistry(registry);
+
+        assertThat(registry.getBeanDefinitionNames(), arrayContainingInAnyOrder("fastConsumer", "slowConsumer",
+                "fastConsumerMessageHandler", "slowConsumerMessageHandler", "slowConsumerRetryingMessageHandler",
+                "fastConsumerDedupingMessageHandler", "slowConsumerPartitionedMessageHandler"));
+
+        final BeanDefinition fastConsumer = registry.getBeanDefinition("fastConsumer");
+        final RabbitConfig fastRabbitConfig = (RabbitConfig) fastConsumer.getConstructorArgumentValues()
+                .getIndexedArgumentValue(1, RabbitConfig.class).getValue();
+        final RabbitConsumerConfig fastQueueConfig = (RabbitConsumerConfig) fastConsumer.getConstructorArgumentValues()
+                .getIndexedArgumentValue(2, RabbitConsumerConfig.class).getValue();
+        final RuntimeBeanReference fastHandler = (RuntimeBeanReference) fastConsumer.getConstructorArgumentValues()
+                .getIndexedArgumentValue(4, null).getValue();
+
+        assertThat(fastConsumer.getBeanClassName(), is(KjobsterConsumer.class.getName()));
+        assertThat(fastRabbitConfig.getExchange(), is("test-exchange"));
+        assertThat(fastQueueConfig.getQueueName(), is("fast-queue"));
+        assertThat(fastQueueConfig.getBindingKey(), is("fast-key"));
+        assertThat(fastQueueConfig.getNumOfListeners(), is(4));
+        assertThat(fastHandler.getBeanName(), is("fastConsumerMessageHandler"));
+
+        final BeanDefinition fastMeteredHandler = registry.getBeanDefinition("fastConsumerMessageHandler");
+        final RuntimeBeanReference fastDelegate = (RuntimeBeanReference) fastMeteredHandler.getConstructorArgumentValues()
+                .getIndexedArgumentValue(0, null).getValue();
+
+        assertThat(fastMeteredHandler.getBeanClassName(), is(MeteredMessageHandler.class.getName()));
+        assertThat(fastDelegate.getBeanName(), is("fastConsumerDedupingMessageHandler"));
+
+        final BeanDefinition fastDedupingHandler = registry.getBeanDefinition("fastConsumerDedupingMessageHandler");
+        final RuntimeBeanReference fastDedupeDelegate = (RuntimeBeanReference) fastDedupingHandler.getConstructorArgumentValues()
+                .getIndexedArgumentValue(0, null).getValue();
+
+        assertThat(fastDedupingHandler.getBeanClassName(), is(DedupingMessageHandler.class.getName()));
+        assertThat(fastDedupeDelegate.getBeanName(), is("fastHandler"));
+
+        final BeanDefinition slowMeteredHandler = registry.getBeanDefinition("slowConsumerMessageHandler");
+        final RuntimeBeanReference slowDelegate = (RuntimeBeanReference) slowMeteredHandler.getConstructorArgumentValues()
+                .getIndexedArgumentValue(0, null).getValue();
+        final BeanDefinition slowRetryingHandler = registry.getBeanDefinition("slowConsumerRetryingMessageHandler");
+        final RuntimeBeanReference slowRetryDelegate = (RuntimeBeanReference) slowRetryingHandler.getConstructorArgumentValues()
+                .getIndexedArgumentValue(0, null).getValue();
+
+        assertThat(slowDelegate.getBeanName(), is("slowConsumerRetryingMessageHandler"));
+        assertThat(slowRetryingHandler.getBeanClassName(), is(RetryingMessageHandler.class.getName()));
+        assertThat(slowRetryDelegate.getBeanName(), is("slowConsumerPartitionedMessageHandler"));
+
+        final BeanDefinition slowPartitionedHandler = registry.getBeanDefinition("slowConsumerPartitionedMessageHandler");
+        final RuntimeBeanReference slowPartitionedDelegate = (RuntimeBeanReference) slowPartitionedHandler.getConstructorArgumentValues()
+                .getIndexedArgumentValue(0, null).getValue();
+
+        assertThat(slowPartitionedHandler.getBeanClassName(), is(PartitionedMessageHandler.class.getName()));
+        assertThat(slowPartitionedDelegate.getBeanName(), is("slowHandler"));
+    }
+
+    @Test
+    public void verifyBatchingConsumerEntryPassedToItsHandler() {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("rabbit.exchange", "test-exchange")
+                .withProperty("rabbit.consumers[0].name", "batchingConsumer")
+                .withProperty("rabbit.consumers[0].handler", "batchingHandler")
+                .withProperty("rabbit.consumers[0].queueName", "batching-queue")
+                .withProperty("rabbit.consumers[0].bindingKey", "batching-key")
+                .withProperty("rabbit.consumers[0].numOfListeners", "2")
+                .withProperty("rabbit.consumers[0].batchSize", "8")
+                .withProperty("rabbit.consumers[0].batchWindow", "10ms");
+        final SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+        registry.registerBeanDefinition("batchingHandler", new GenericBeanDefinition());
+        final KjobsterConsumerRegistry consumerRegistry = new KjobsterConsumerRegistry();
+        consumerRegistry.setEnvironment(environment);
+
+        consumerRegistry.postProcessBeanDefinitionRegistry(registry);
+
+        final RabbitConsumerConfig handlerConsumerConfig = (RabbitConsumerConfig) registry.getBeanDefinition("batchingHandler")
+                .getConstructorArgumentValues().getGenericArgumentValue(RabbitConsumerConfig.class).getValue();
+
+        assertThat(handlerConsumerConfig.getName(), is("batchingConsumer"));
+        assertThat(handlerConsumerConfig.getBatchSize(), is(8));
+        assertThat(handlerConsumerConfig.getBatchWindow(), is(Duration.ofMillis(10)));
+    }
+
+    @Test
+    public void verifyConsumerWithFewerPartitionsThanMaxListenersRejected() {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("rabbit.exchange", "test-exchange")
+                .withProperty("rabbit.consumers[0].name", "partitionedConsumer")
+                .withProperty("rabbit.consumers[0].handler", "partitionedHandler")
+                .withProperty("rabbit.consumers[0].queueName", "partitioned-queue")
+                .withProperty("rabbit.consumers[0].bindingKey", "partitioned-key")
+                .withProperty("rabbit.consumers[0].numOfListeners", "8")
+                .withProperty("rabbit.consumers[0].maxNumOfListeners", "32")
+                .withProperty("rabbit.consumers[0].partitions", "8");
+        final KjobsterConsumerRegistry consumerRegistry = new KjobsterConsumerRegistry();
+        consumerRegistry.setEnvironment(environment);
+
+        assertThrows(IllegalStateException.class,
+                () -> consumerRegistry.postProcessBeanDefinitionRegistry(new SimpleBeanDefinitionRegistry()));
+    }
+
+    @Test
+    public void verifyConsumerWithPrefetchRejected() {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("rabbit.exchange", "test-exchange")
+                .withProperty("rabbit.consumers[0].name", "prefetchingConsumer")
+                .withProperty("rabbit.consumers[0].handler", "prefetchingHandler")
+                .withProperty("rabbit.consumers[0].queueName", "prefetching-queue")
+                .withProperty("rabbit.consumers[0].bindingKey", "prefetching-key")
+                .withProperty("rabbit.consumers[0].numOfListeners", "2")
+                .withProperty("rabbit.consumers[0].prefetch", "50");
+        final KjobsterConsumerRegistry consumerRegistry = new KjobsterConsumerRegistry();
+        consumerRegistry.setEnvironment(environment);
+
+        assertThrows(IllegalStateException.class,
+                () -> consumerRegistry.postProcessBeanDefinitionRegistry(new SimpleBeanDefinitionRegistry()));
+    }
+}
@@ -6,6 +6,7 @@ import com.kenshoo.kjobster.api.MessageHandler;
 import com.kenshoo.kjobster.api.conf.BrokerDetails;
 import com.kenshoo.kjobster.api.conf.ConsumerConfiguration;
 import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
 import io.skai.template.rabbit.BrokerDetailsFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,12 +16,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class KjobsterConsumerTest {
 
+    private static final String MESSAGE = "message";
+    private static final Optional<String> JOB_NAME = Optional.of("job");
+
     @InjectMocks
     private KjobsterConsumer kjobsterConsumer;
     @Mock
@@ -28,34 +37,135 @@ public class KjobsterConsumerTest {
     @Mock
     private RabbitConfig rabbitConfig;
     @Mock
+    private RabbitConsumerConfig consumerConfig;
+    @Mock
     private JobsterApi jobsterApi;
     @Mock
     private MessageHandler messageHandler;
 
     @Captor
     private ArgumentCaptor<ConsumerConfiguration> argumentCaptor;
+    @Captor
+    private ArgumentCaptor<MessageHandler> messageHandlerCaptor;
 
     @Test
     public void verifyConsumerInitializationAndLifecycle() {
         assertFalse(kjobsterConsumer.isRunning());
-        when(rabbitConfig.getNumOfListeners()).thenReturn(2);
+        when(consumerConfig.getNumOfListeners()).thenReturn(2);
 
         BrokerDetails brokerDetails = mock(BrokerDetails.class);
-        when(factory.getBrokerDetails(rabbitConfig)).thenReturn(brokerDetails);
+        when(factory.getBrokerDetails(rabbitConfig, consumerConfig)).thenReturn(brokerDetails);
 
         Consumer consumer = mock(Consumer.class);
-        when(jobsterApi.startConsumer(any(ConsumerConfiguration.class), eq(messageHandler))).thenReturn(consumer);
+        when(jobsterApi.startConsumer(any(ConsumerConfiguration.class), any(MessageHandler.class))).thenReturn(consumer);
 
         kjobsterConsumer.start();
 
-        verify(jobsterApi).startConsumer(argumentCaptor.capture(), eq(messageHandler));
+        verify(jobsterApi).startConsumer(argumentCaptor.capture(), messageHandlerCaptor.capture());
         ConsumerConfiguration consumerConfiguration = argumentCaptor.getValue();
         assertEquals(brokerDetails, consumerConfiguration.getBrokerDetails());
         assertEquals(2, consumerConfiguration.getWorkers());
         assertTrue(kjobsterConsumer.isRunning());
 
+        messageHandlerCaptor.getValue().handleMessage(MESSAGE, JOB_NAME);
+        verify(messageHandler).handleMessage(MESSAGE, JOB_NAME);
+
         kjobsterConsumer.stop();
         verify(consumer).shutDown();
         assertFalse(kjobsterConsumer.isRunning());
     }
+
+    @Test
+    public void verifyStopCallbackWaitsForInFlightMessages() throws Exception {
+        when(consumerConfig.getNumOfListeners()).thenReturn(1);
+        when(factory.getBrokerDetails(rabbitConfig, consumerConfig)).thenReturn(mock(BrokerDetails.class));
+        Consumer consumer = mock(Consumer.class);
+        when(jobsterApi.startConsumer(any(ConsumerConfiguration.class), messageHandlerCaptor.capture())).thenReturn(consumer);
+
+        final CountDownLatch handlerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseHandler = new CountDownLatch(1);
+        when(messageHandler.handleMessage(MESSAGE, JOB_NAME)).thenAnswer(invocation -> {
+            handlerStarted.countDown();
+            releaseHandler.await();
+            return null;
+        });
+
+        kjobsterConsumer.start();
+        final CompletableFuture<?> handling = CompletableFuture.runAsync(
+                () -> messageHandlerCaptor.getValue().handleMessage(MESSAGE, JOB_NAME));
+        assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+
+        final CountDownLatch stopped = new CountDownLatch(1);
+        kjobsterConsumer.stop(stopped::countDown);
+
+        assertFalse(kjobsterConsumer.isRunning());
+        assertFalse(stopped.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, kjobsterConsumer.getInFlight());
+
+        releaseHandler.countDown();
+        handling.get(5, TimeUnit.SECONDS);
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        verify(consumer).shutDown();
+        assertEquals(0, kjobsterConsumer.getInFlight());
+    }
+
+    @Test
+    public void verifyPauseAndResumeRestartConsumption() {
+        when(consumerConfig.getNumOfListeners()).thenReturn(2);
+        when(factory.getBrokerDetails(rabbitConfig, consumerConfig)).thenReturn(mock(BrokerDetails.class));
+        Consumer consumer = mock(Consumer.class);
+        Consumer resumedConsumer = mock(Consumer.class);
+        when(jobsterApi.startConsumer(any(ConsumerConfiguration.class), any(MessageHandler.class))).thenReturn(consumer, resumedConsumer);
+
+        kjobsterConsumer.start();
+        kjobsterConsumer.pause();
+
+        verify(consumer, timeout(5000)).shutDown();
+        assertTrue(kjobsterConsumer.isPaused());
+        assertTrue(kjobsterConsumer.isRunning());
+
+        kjobsterConsumer.resume();
+
+        verify(jobsterApi, times(2)).startConsumer(argumentCaptor.capture(), any(MessageHandler.class));
+        assertEquals(2, argumentCaptor.getValue().getWorkers());
+        assertFalse(kjobsterConsumer.isPaused());
+
+        kjobsterConsumer.stop();
+        verify(resumedConsumer).shutDown();
+    }
+
+    @Test
+    public void verifyPauseReturnsWhileConsumerShutsDown() throws Exception {
+        when(consumerConfig.getNumOfListeners()).thenReturn(1);
+        when(factory.getBrokerDetails(rabbitConfig, consumerConfig)).thenReturn(mock(BrokerDetails.class));
+        Consumer consumer = mock(Consumer.class);
+        when(jobsterApi.startConsumer(any(ConsumerConfiguration.class), any(MessageHandler.class))).thenReturn(consumer);
+        final CountDownLatch releaseShutDown = new CountDownLatch(1);
+        doAnswer(invocation -> releaseShutDown.await(5, TimeUnit.SECONDS)).when(consumer).shutDown();
+
+        kjobsterConsumer.start();
+        CompletableFuture.runAsync(kjobsterConsumer::pause).get(1, TimeUnit.SECONDS);
+
+        assertTrue(kjobsterConsumer.isPaused());
+        releaseShutDown.countDown();
+        kjobsterConsumer.stop();
+        verify(consumer, times(1)).shutDown();
+    }
+
+    @Test
+    public void verifyStopWhilePausedDoesNotShutDownTwice() {
+        when(consumerConfig.getNumOfListeners()).thenReturn(1);
+        when(factory.getBrokerDetails(rabbitConfig, consumerConfig)).thenReturn(mock(BrokerDetails.class));
+        Consumer consumer = mock(Consumer.class);
+        when(jobsterApi.startConsumer(any(ConsumerConfiguration.class), any(MessageHandler.class))).thenReturn(consumer);
+
+        kjobsterConsumer.start();
+        kjobsterConsumer.pause();
+        kjobsterConsumer.stop();
+
+        verify(consumer, times(1)).shutDown();
+        assertFalse(kjobsterConsumer.isRunning());
+        assertFalse(kjobsterConsumer.isPaused());
+    }
 }
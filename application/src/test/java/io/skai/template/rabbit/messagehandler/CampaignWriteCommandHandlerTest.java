@@ -0,0 +1,85 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.skai.template.config.rabbit.WriteCommandConfig;
+import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.CampaignWriteCommand;
+import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.services.CampaignService;
+import io.skai.template.services.OperationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CampaignWriteCommandHandlerTest {
+
+    private static final String OPERATION_ID = "operation-id";
+    private static final long CAMPAIGN_ID = 7L;
+    private static final Campaign CAMPAIGN = Campaign.builder()
+            .name("CAMPAIGN_NAME_1")
+            .ksName("CAMPAIGN_KS_NAME_1")
+            .status(Status.ACTIVE)
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CampaignService campaignService;
+    @Mock
+    private OperationService operationService;
+
+    private CampaignWriteCommandHandler messageHandler;
+
+    @BeforeEach
+    public void init() {
+        final WriteCommandConfig writeCommandConfig = new WriteCommandConfig();
+        writeCommandConfig.setBatchSize(8);
+        writeCommandConfig.setBatchWindow(Duration.ofMillis(10));
+        messageHandler = new CampaignWriteCommandHandler(objectMapper, campaignService, operationService, writeCommandConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        messageHandler.destroy();
+    }
+
+    @Test
+    public void verifyOperationCompletedWithCreatedCampaignId() throws Exception {
+        when(campaignService.createAll(List.of(CAMPAIGN))).thenReturn(List.of(CAMPAIGN_ID));
+
+        messageHandler.handleMessage(command(), Optional.of(OPERATION_ID));
+
+        verify(operationService).complete(OPERATION_ID, CAMPAIGN_ID);
+    }
+
+    @Test
+    public void verifyMessageAcknowledgedWhenOperationStatusCannotBeRecorded() throws Exception {
+        when(campaignService.createAll(List.of(CAMPAIGN))).thenReturn(List.of(CAMPAIGN_ID));
+        doThrow(new RedisConnectionFailureException("redis is down")).when(operationService).complete(OPERATION_ID, CAMPAIGN_ID);
+
+        final MessageResponse response = messageHandler.handleMessage(command(), Optional.of(OPERATION_ID));
+
+        assertThat(response.getMessageAction(), is(MessageAction.ACKNOWLEDGE));
+        verify(campaignService).createAll(List.of(CAMPAIGN));
+        verify(campaignService, never()).create(any());
+    }
+
+    private String command() throws Exception {
+        return objectMapper.writeValueAsString(new CampaignWriteCommand(OPERATION_ID, CAMPAIGN));
+    }
+}
@@ -0,0 +1,113 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DedupingMessageHandlerTest {
+
+    private static final String MESSAGE = "message";
+    private static final Optional<String> JOB_NAME = Optional.of("job");
+    private static final String CONSUMER_NAME = "consumer";
+    private static final Duration DEDUPE_TTL = Duration.ofHours(1);
+
+    @Mock
+    private MessageHandler delegate;
+    @Mock
+    private RedisOperations<String, String> redisOperations;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DedupingMessageHandler dedupingMessageHandler;
+
+    @BeforeEach
+    public void init() {
+        lenient().when(redisOperations.opsForValue()).thenReturn(valueOperations);
+        dedupingMessageHandler = new DedupingMessageHandler(delegate, CONSUMER_NAME, DEDUPE_TTL, redisOperations, meterRegistry);
+    }
+
+    @Test
+    public void verifyFirstDeliveryHandled() {
+        final MessageResponse response = acknowledge();
+        when(valueOperations.setIfAbsent(eq("dedupe:consumer:job"), anyString(), eq(DEDUPE_TTL))).thenReturn(true);
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenReturn(response);
+
+        assertThat(dedupingMessageHandler.handleMessage(MESSAGE, JOB_NAME), is(response));
+
+        verify(redisOperations, never()).delete(anyString());
+        assertThat(skippedCount(), is(0.0));
+    }
+
+    @Test
+    public void verifyDuplicateDeliverySkipped() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(DEDUPE_TTL))).thenReturn(false);
+
+        dedupingMessageHandler.handleMessage(MESSAGE, JOB_NAME);
+
+        verifyNoInteractions(delegate);
+        assertThat(skippedCount(), is(1.0));
+    }
+
+    @Test
+    public void verifyClaimReleasedWhenHandlerFails() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(DEDUPE_TTL))).thenReturn(true);
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class, () -> dedupingMessageHandler.handleMessage(MESSAGE, JOB_NAME));
+
+        verify(redisOperations).delete("dedupe:consumer:job");
+    }
+
+    @Test
+    public void verifyMessageWithoutJobNameHandledWithoutClaim() {
+        final MessageResponse response = acknowledge();
+        when(delegate.handleMessage(MESSAGE, Optional.empty())).thenReturn(response);
+
+        assertThat(dedupingMessageHandler.handleMessage(MESSAGE, Optional.empty()), is(response));
+
+        verifyNoInteractions(redisOperations);
+    }
+
+    @Test
+    public void verifyMessageHandledWhenRedisUnavailable() {
+        final MessageResponse response = acknowledge();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(DEDUPE_TTL))).thenThrow(new IllegalStateException("redis down"));
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenReturn(response);
+
+        assertThat(dedupingMessageHandler.handleMessage(MESSAGE, JOB_NAME), is(response));
+    }
+
+    private double skippedCount() {
+        return meterRegistry.get(new MetricNameBuilder(DedupingMessageHandler.class).name("skipped"))
+                .counter()
+                .count();
+    }
+
+    private static MessageResponse acknowledge() {
+        return MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+    }
+}
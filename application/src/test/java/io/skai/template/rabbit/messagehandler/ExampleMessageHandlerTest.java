@@ -0,0 +1,77 @@
+package io.skai.template.rabbit.messagehandler;
+
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.redis.RedisValueRejectedException;
+import io.skai.template.redis.RedisValueWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExampleMessageHandlerTest {
+
+    private static final String JOB_NAME = "job-name";
+    private static final String MESSAGE = "test message";
+
+    @Mock
+    private RedisValueWriter redisValueWriter;
+
+    private ExampleMessageHandler messageHandler;
+
+    @BeforeEach
+    public void init() {
+        final RabbitConsumerConfig consumerConfig = new RabbitConsumerConfig();
+        consumerConfig.setName("exampleConsumer");
+        consumerConfig.setBatchSize(8);
+        consumerConfig.setBatchWindow(Duration.ofMillis(10));
+        messageHandler = new ExampleMessageHandler(redisValueWriter, consumerConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        messageHandler.destroy();
+    }
+
+    @Test
+    public void verifyMessageWrittenInOneBatchBeforeAcknowledge() {
+        messageHandler.handleMessage(MESSAGE, Optional.of(JOB_NAME));
+
+        verify(redisValueWriter).writeAll(Map.of(JOB_NAME, MESSAGE));
+    }
+
+    @Test
+    public void verifyMessageNotAcknowledgedWhenFlushFails() {
+        doThrow(new RedisConnectionFailureException("redis is down")).when(redisValueWriter).writeAll(anyMap());
+
+        assertThrows(RedisConnectionFailureException.class,
+                () -> messageHandler.handleMessage(MESSAGE, Optional.of(JOB_NAME)));
+    }
+
+    @Test
+    public void verifyOversizedMessageFailsInsteadOfAcknowledge() {
+        doThrow(new RedisValueRejectedException(JOB_NAME, 10_000, 4096)).when(redisValueWriter).verifyWritable(JOB_NAME, MESSAGE);
+
+        assertThrows(RedisValueRejectedException.class,
+                () -> messageHandler.handleMessage(MESSAGE, Optional.of(JOB_NAME)));
+        verify(redisValueWriter, never()).writeAll(anyMap());
+    }
+
+    @Test
+    public void verifyMessageWithoutJobNameSkipsRedis() {
+        messageHandler.handleMessage(MESSAGE, Optional.empty());
+
+        verifyNoInteractions(redisValueWriter);
+    }
+}
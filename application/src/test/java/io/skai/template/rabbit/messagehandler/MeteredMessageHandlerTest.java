@@ -0,0 +1,69 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredMessageHandlerTest {
+
+    private static final String CONSUMER_NAME = "exampleConsumer";
+    private static final String MESSAGE = "message";
+    private static final Optional<String> JOB_NAME = Optional.of("job");
+    private static final String HANDLE_METRIC_NAME = new MetricNameBuilder(MeteredMessageHandler.class).name("handle");
+    private static final String MESSAGES_METRIC_NAME = new MetricNameBuilder(MeteredMessageHandler.class).name("messages");
+    private static final String IN_FLIGHT_METRIC_NAME = new MetricNameBuilder(MeteredMessageHandler.class).name("in_flight");
+
+    @Mock
+    private MessageHandler delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredMessageHandler meteredMessageHandler;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        meteredMessageHandler = new MeteredMessageHandler(delegate, CONSUMER_NAME, meterRegistry);
+    }
+
+    @Test
+    public void verifyHandledMessageRecordedByAction() {
+        final MessageResponse response = MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenReturn(response);
+
+        assertThat(meteredMessageHandler.handleMessage(MESSAGE, JOB_NAME), is(response));
+
+        assertThat(meterRegistry.get(HANDLE_METRIC_NAME).tag("consumer", CONSUMER_NAME).timer().count(), is(1L));
+        assertThat(meterRegistry.get(MESSAGES_METRIC_NAME).tag("consumer", CONSUMER_NAME)
+                .tag("action", MessageAction.ACKNOWLEDGE.name()).counter().count(), is(1.0));
+        assertThat(meterRegistry.get(IN_FLIGHT_METRIC_NAME).tag("consumer", CONSUMER_NAME).gauge().value(), is(0.0));
+    }
+
+    @Test
+    public void verifyFailedMessageRecorded() {
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenThrow(new IllegalStateException("handler failed"));
+
+        assertThrows(IllegalStateException.class, () -> meteredMessageHandler.handleMessage(MESSAGE, JOB_NAME));
+
+        assertThat(meterRegistry.get(HANDLE_METRIC_NAME).tag("consumer", CONSUMER_NAME).timer().count(), is(1L));
+        assertThat(meterRegistry.get(MESSAGES_METRIC_NAME).tag("consumer", CONSUMER_NAME)
+                .tag("action", "FAILED").counter().count(), is(1.0));
+        assertThat(meterRegistry.get(IN_FLIGHT_METRIC_NAME).tag("consumer", CONSUMER_NAME).gauge().value(), is(0.0));
+    }
+}
@@ -0,0 +1,106 @@
+package io.skai.template.rabbit.messagehandler;
+
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PartitionedMessageHandlerTest {
+
+    private static final int PARTITIONS = 4;
+    private static final Optional<String> JOB_NAME = Optional.of("job");
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(8);
+    private PartitionedMessageHandler partitionedMessageHandler;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        workers.shutdownNow();
+        if (partitionedMessageHandler != null) {
+            partitionedMessageHandler.destroy();
+        }
+    }
+
+    @Test
+    public void verifySameJobAlwaysMapsToSameLane() {
+        partitionedMessageHandler = new PartitionedMessageHandler(acknowledging(), "consumer", PARTITIONS, new SimpleMeterRegistry());
+
+        final int lane = partitionedMessageHandler.lane("first", JOB_NAME);
+
+        assertThat(partitionedMessageHandler.lane("second", JOB_NAME), is(lane));
+        assertThat(lane, is(both(greaterThanOrEqualTo(0)).and(lessThan(PARTITIONS))));
+    }
+
+    @Test
+    public void verifyMessagesOfSameJobNeverHandledConcurrently() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final List<Integer> concurrency = Collections.synchronizedList(new ArrayList<>());
+        partitionedMessageHandler = new PartitionedMessageHandler(new MessageHandler() {
+            @Override
+            public MessageResponse handleMessage(String message, Optional<String> jobName) {
+                concurrency.add(running.incrementAndGet());
+                sleep();
+                running.decrementAndGet();
+                return acknowledge();
+            }
+        }, "consumer", PARTITIONS, new SimpleMeterRegistry());
+
+        IntStream.range(0, 50).forEach(i -> workers.submit(() -> partitionedMessageHandler.handleMessage("message-" + i, JOB_NAME)));
+        workers.shutdown();
+        assertThat(workers.awaitTermination(10, TimeUnit.SECONDS), is(true));
+
+        assertThat(concurrency, hasSize(50));
+        assertThat(concurrency, everyItem(is(1)));
+    }
+
+    @Test
+    public void verifyHandlerFailurePropagatedToWorker() {
+        partitionedMessageHandler = new PartitionedMessageHandler(new MessageHandler() {
+            @Override
+            public MessageResponse handleMessage(String message, Optional<String> jobName) {
+                throw new IllegalStateException("failed");
+            }
+        }, "consumer", PARTITIONS, new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, () -> partitionedMessageHandler.handleMessage("message", JOB_NAME));
+    }
+
+    private static MessageHandler acknowledging() {
+        return new MessageHandler() {
+            @Override
+            public MessageResponse handleMessage(String message, Optional<String> jobName) {
+                return acknowledge();
+            }
+        };
+    }
+
+    private static MessageResponse acknowledge() {
+        return MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.skai.template.rabbit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.skai.template.config.rabbit.OutboxConfig;
+import io.skai.template.dataaccess.dao.OutboxDao;
+import io.skai.template.dataaccess.entities.OutboxEvent;
+import io.skai.template.rabbit.producer.MessagePublishException;
+import io.skai.template.rabbit.producer.RabbitPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final Duration CONFIRM_TIMEOUT = Duration.ofSeconds(5);
+
+    @Mock
+    private OutboxDao outboxDao;
+    @Mock
+    private RabbitPublisher rabbitPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void init() {
+        final OutboxConfig outboxConfig = new OutboxConfig();
+        outboxConfig.setBatchSize(BATCH_SIZE);
+        outboxConfig.setRoutingKeyPrefix("outbox");
+        outboxConfig.setConfirmTimeout(CONFIRM_TIMEOUT);
+        outboxRelay = new OutboxRelay(outboxDao, outboxConfig, rabbitPublisher, transactionTemplate,
+                new ObjectMapper(), new SimpleMeterRegistry());
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void verifyBatchesPublishedAndDeletedAfterConfirms() {
+        when(outboxDao.tryLockRelay()).thenReturn(true);
+        when(outboxDao.lockOldest(BATCH_SIZE))
+                .thenReturn(List.of(event(1L, OutboxEvent.EventType.CREATED), event(2L, OutboxEvent.EventType.UPDATED)))
+                .thenReturn(List.of(event(3L, OutboxEvent.EventType.DELETED)));
+        when(rabbitPublisher.publishOrdered(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        verify(rabbitPublisher).publishOrdered(eq("CAMPAIGN:1"), eq("outbox.campaign.created"), any(AMQP.BasicProperties.class), any(byte[].class));
+        verify(rabbitPublisher).publishOrdered(eq("CAMPAIGN:2"), eq("outbox.campaign.updated"), any(AMQP.BasicProperties.class), any(byte[].class));
+        verify(rabbitPublisher).publishOrdered(eq("CAMPAIGN:3"), eq("outbox.campaign.deleted"), any(AMQP.BasicProperties.class), any(byte[].class));
+        verify(outboxDao).deleteByIds(List.of(1L, 2L));
+        verify(outboxDao).deleteByIds(List.of(3L));
+        verify(outboxDao, times(2)).unlockRelay();
+    }
+
+    @Test
+    public void verifyEventsKeptWhenConfirmFails() {
+        when(outboxDao.tryLockRelay()).thenReturn(true);
+        when(outboxDao.lockOldest(BATCH_SIZE)).thenReturn(List.of(event(1L, OutboxEvent.EventType.CREATED)));
+        when(rabbitPublisher.publishOrdered(any(), any(), any(AMQP.BasicProperties.class), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new MessagePublishException("nack", null)));
+
+        outboxRelay.relay();
+
+        verify(outboxDao, never()).deleteByIds(any());
+        verify(outboxDao).unlockRelay();
+    }
+
+    @Test
+    public void verifyNothingPublishedWhenOutboxEmpty() {
+        when(outboxDao.tryLockRelay()).thenReturn(true);
+        when(outboxDao.lockOldest(BATCH_SIZE)).thenReturn(List.of());
+
+        assertThat(outboxRelay.relayBatch(), is(0));
+
+        verifyNoInteractions(rabbitPublisher);
+    }
+
+    @Test
+    public void verifyRoundSkippedWhenAnotherInstanceRelays() {
+        when(outboxDao.tryLockRelay()).thenReturn(false);
+
+        outboxRelay.relay();
+
+        verify(outboxDao, never()).lockOldest(anyInt());
+        verify(outboxDao, never()).unlockRelay();
+        verifyNoInteractions(rabbitPublisher);
+    }
+
+    private static OutboxEvent event(long id, OutboxEvent.EventType eventType) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(OutboxEvent.AggregateType.CAMPAIGN)
+                .aggregateId(id)
+                .eventType(eventType)
+                .payload("{\"name\":\"campaign\"}")
+                .build();
+    }
+}
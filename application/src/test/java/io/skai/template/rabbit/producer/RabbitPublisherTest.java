@@ -0,0 +1,179 @@
+package io.skai.template.rabbit.producer;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.skai.template.config.rabbit.PublisherConfig;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.rabbit.RabbitConnectionProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RabbitPublisherTest {
+
+    private static final String EXCHANGE = "exchange";
+    private static final String ROUTING_KEY = "routing-key";
+    private static final String ORDERING_KEY = "CAMPAIGN:1";
+    private static final byte[] BODY = "body".getBytes(StandardCharsets.UTF_8);
+    private static final AMQP.BasicProperties PROPERTIES = new AMQP.BasicProperties();
+
+    @Mock
+    private RabbitConnectionProvider rabbitConnectionProvider;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Channel channel;
+
+    private final PublisherConfig publisherConfig = new PublisherConfig();
+    private RabbitPublisher rabbitPublisher;
+
+    @BeforeEach
+    public void init() {
+        publisherConfig.setChannels(1);
+        publisherConfig.setBufferSize(100);
+        publisherConfig.setMaxBatchSize(10);
+        publisherConfig.setMaxOutstandingConfirms(10);
+        publisherConfig.setOfferTimeout(Duration.ofMillis(10));
+        publisherConfig.setConfirmTimeout(Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        rabbitPublisher.destroy();
+    }
+
+    @Test
+    public void verifyPublishCompletedByBrokerAck() throws Exception {
+        mockChannel();
+        when(channel.getNextPublishSeqNo()).thenReturn(1L);
+        rabbitPublisher = createPublisher();
+
+        final CompletableFuture<Void> confirmed = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+
+        verify(channel, timeout(1_000)).basicPublish(EXCHANGE, ROUTING_KEY, PROPERTIES, BODY);
+        assertThat(confirmed.isDone(), is(false));
+
+        confirmListener().handleAck(1L, false);
+
+        assertThat(confirmed.isDone(), is(true));
+        assertThat(confirmed.isCompletedExceptionally(), is(false));
+        verify(channel).confirmSelect();
+    }
+
+    @Test
+    public void verifyMultipleAckCompletesAllEarlierMessages() throws Exception {
+        mockChannel();
+        when(channel.getNextPublishSeqNo()).thenReturn(1L, 2L);
+        rabbitPublisher = createPublisher();
+
+        final CompletableFuture<Void> first = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+        final CompletableFuture<Void> second = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+
+        verify(channel, timeout(1_000).times(2)).basicPublish(EXCHANGE, ROUTING_KEY, PROPERTIES, BODY);
+        confirmListener().handleAck(2L, true);
+
+        assertThat(first.isDone() && second.isDone(), is(true));
+    }
+
+    @Test
+    public void verifySameOrderingKeyPublishedOnOneChannelInCallOrder() throws Exception {
+        publisherConfig.setChannels(4);
+        mockChannel();
+        rabbitPublisher = createPublisher();
+
+        for (int i = 0; i < 5; i++) {
+            rabbitPublisher.publishOrdered(ORDERING_KEY, ROUTING_KEY + i, PROPERTIES, BODY);
+        }
+
+        verify(channel, timeout(1_000).times(5)).basicPublish(eq(EXCHANGE), anyString(), eq(PROPERTIES), eq(BODY));
+        final InOrder inOrder = inOrder(channel);
+        for (int i = 0; i < 5; i++) {
+            inOrder.verify(channel).basicPublish(EXCHANGE, ROUTING_KEY + i, PROPERTIES, BODY);
+        }
+        verify(connection).createChannel();
+    }
+
+    @Test
+    public void verifyPublishFailedByBrokerNack() throws Exception {
+        mockChannel();
+        when(channel.getNextPublishSeqNo()).thenReturn(1L);
+        rabbitPublisher = createPublisher();
+
+        final CompletableFuture<Void> confirmed = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+
+        verify(channel, timeout(1_000)).basicPublish(EXCHANGE, ROUTING_KEY, PROPERTIES, BODY);
+        confirmListener().handleNack(1L, false);
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, () -> confirmed.get(1, TimeUnit.SECONDS));
+        assertThat(exception.getCause(), is(instanceOf(MessagePublishException.class)));
+    }
+
+    @Test
+    public void verifyPublishRejectedWhenBufferFull() throws Exception {
+        publisherConfig.setBufferSize(1);
+        final CountDownLatch connectionBlocked = new CountDownLatch(1);
+        final CountDownLatch releaseConnection = new CountDownLatch(1);
+        when(rabbitConnectionProvider.getConnection()).thenAnswer(invocation -> {
+            connectionBlocked.countDown();
+            releaseConnection.await();
+            throw new IOException("rabbit is down");
+        });
+        rabbitPublisher = createPublisher();
+
+        try {
+            final CompletableFuture<Void> taken = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+            assertThat(connectionBlocked.await(1, TimeUnit.SECONDS), is(true));
+            final CompletableFuture<Void> buffered = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+            final CompletableFuture<Void> rejected = rabbitPublisher.publish(ROUTING_KEY, PROPERTIES, BODY);
+
+            assertThat(taken.isDone(), is(false));
+            assertThat(buffered.isDone(), is(false));
+            assertThat(rejected.isCompletedExceptionally(), is(true));
+        } finally {
+            releaseConnection.countDown();
+        }
+    }
+
+    private RabbitPublisher createPublisher() {
+        final RabbitConfig rabbitConfig = new RabbitConfig();
+        rabbitConfig.setExchange(EXCHANGE);
+        return new RabbitPublisher(rabbitConfig, publisherConfig, rabbitConnectionProvider, new SimpleMeterRegistry());
+    }
+
+    private void mockChannel() throws Exception {
+        when(rabbitConnectionProvider.getConnection()).thenReturn(connection);
+        when(connection.createChannel()).thenReturn(channel);
+        lenient().when(channel.isOpen()).thenReturn(true);
+    }
+
+    private ConfirmListener confirmListener() {
+        final ArgumentCaptor<ConfirmListener> confirmListener = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel).addConfirmListener(confirmListener.capture());
+        return confirmListener.getValue();
+    }
+}
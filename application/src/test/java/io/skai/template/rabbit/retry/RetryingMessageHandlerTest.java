@@ -0,0 +1,160 @@
+package io.skai.template.rabbit.retry;
+
+import com.kenshoo.kjobster.api.MessageAction;
+import com.kenshoo.kjobster.api.MessageHandler;
+import com.kenshoo.kjobster.api.MessageResponse;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.rabbit.BrokerDetailsFactory;
+import io.skai.template.rabbit.RabbitConnectionProvider;
+import io.skai.template.rabbit.producer.KjobsterProducer;
+import io.skai.template.rabbit.producer.MessagePublishException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryingMessageHandlerTest {
+
+    private static final String MESSAGE = "message";
+    private static final Optional<String> JOB_NAME = Optional.of("job");
+    private static final String EXCHANGE = "exchange";
+    private static final String QUEUE_NAME = "queue";
+    private static final String BINDING_KEY = "key";
+    private static final List<Duration> RETRY_DELAYS = List.of(Duration.ofSeconds(1), Duration.ofSeconds(10));
+
+    @Mock
+    private MessageHandler delegate;
+    @Mock
+    private RabbitConnectionProvider rabbitConnectionProvider;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Channel channel;
+    @Mock
+    private KjobsterProducer kjobsterProducer;
+
+    private RetryingMessageHandler retryingMessageHandler;
+
+    @BeforeEach
+    public void init() {
+        final RabbitConfig rabbitConfig = new RabbitConfig();
+        rabbitConfig.setExchange(EXCHANGE);
+        final RabbitConsumerConfig queueConfig = new RabbitConsumerConfig();
+        queueConfig.setQueueName(QUEUE_NAME);
+        queueConfig.setBindingKey(BINDING_KEY);
+        retryingMessageHandler = new RetryingMessageHandler(delegate, rabbitConfig, queueConfig, RETRY_DELAYS, new BrokerDetailsFactory(),
+                rabbitConnectionProvider, kjobsterProducer, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void verifySuccessfulMessagePassesThrough() {
+        final MessageResponse response = MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenReturn(response);
+
+        assertThat(retryingMessageHandler.handleMessage(MESSAGE, JOB_NAME), is(response));
+
+        verifyNoInteractions(kjobsterProducer, rabbitConnectionProvider);
+    }
+
+    @Test
+    public void verifyFirstFailureRoutedToFirstDelayQueueWithAttemptInJobName() throws Exception {
+        mockTopology();
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenThrow(new IllegalStateException("redis blip"));
+
+        retryingMessageHandler.handleMessage(MESSAGE, JOB_NAME);
+
+        verify(kjobsterProducer).publish("key.retry.1", "job#attempt-1", MESSAGE);
+    }
+
+    @Test
+    public void verifyRetriedMessageRoutedToDelayQueueOfNextAttempt() throws Exception {
+        mockTopology();
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenThrow(new IllegalStateException("redis blip"));
+
+        retryingMessageHandler.handleMessage(MESSAGE, Optional.of("job#attempt-1"));
+
+        verify(kjobsterProducer).publish("key.retry.2", "job#attempt-2", MESSAGE);
+        verify(channel).queueDeclare("queue.retry.1", true, false, false, Map.of(
+                "x-message-ttl", 1_000L,
+                "x-dead-letter-exchange", EXCHANGE,
+                "x-dead-letter-routing-key", BINDING_KEY));
+        verify(channel).queueBind("queue.retry.2", EXCHANGE, "key.retry.2");
+        verify(channel).queueBind("queue.dead", EXCHANGE, "key.dead");
+    }
+
+    @Test
+    public void verifyMessageDeadLetteredWithOriginalJobNameWhenAttemptsExhausted() throws Exception {
+        mockTopology();
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenThrow(new IllegalStateException("redis blip"));
+
+        retryingMessageHandler.handleMessage(MESSAGE, Optional.of("job#attempt-2"));
+
+        verify(kjobsterProducer).publish("key.dead", "job", MESSAGE);
+    }
+
+    @Test
+    public void verifyNonAcknowledgeResponseRoutedToDelayQueue() throws Exception {
+        mockTopology();
+        final MessageAction notAcknowledged = Arrays.stream(MessageAction.values())
+                .filter(action -> action != MessageAction.ACKNOWLEDGE)
+                .findFirst()
+                .orElseThrow();
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenReturn(MessageResponse.builder()
+                .withMessageAction(notAcknowledged)
+                .build());
+
+        final MessageResponse response = retryingMessageHandler.handleMessage(MESSAGE, JOB_NAME);
+
+        assertThat(response.getMessageAction(), is(MessageAction.ACKNOWLEDGE));
+        verify(kjobsterProducer).publish("key.retry.1", "job#attempt-1", MESSAGE);
+    }
+
+    @Test
+    public void verifyAttemptStrippedFromJobNameBeforeDelegate() {
+        final MessageResponse response = MessageResponse.builder()
+                .withMessageAction(MessageAction.ACKNOWLEDGE)
+                .build();
+        when(delegate.handleMessage(MESSAGE, Optional.empty())).thenReturn(response);
+
+        assertThat(retryingMessageHandler.handleMessage(MESSAGE, Optional.of("#attempt-1")), is(response));
+    }
+
+    @Test
+    public void verifyOriginalFailureRethrownWhenRetryCannotBePublished() throws Exception {
+        mockTopology();
+        final IllegalStateException failure = new IllegalStateException("redis blip");
+        when(delegate.handleMessage(MESSAGE, JOB_NAME)).thenThrow(failure);
+        doThrow(new MessagePublishException("rabbit is down", null)).when(kjobsterProducer).publish(anyString(), anyString(), anyString());
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> retryingMessageHandler.handleMessage(MESSAGE, JOB_NAME));
+
+        assertThat(exception, is(failure));
+        assertThat(exception.getSuppressed().length, is(1));
+    }
+
+    private void mockTopology() throws Exception {
+        when(rabbitConnectionProvider.getConnection()).thenReturn(connection);
+        when(connection.createChannel()).thenReturn(channel);
+    }
+}
@@ -0,0 +1,86 @@
+package io.skai.template.redis;
+
+import com.kenshoo.datadog.MetricNameBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.skai.template.config.redis.RedisWritePolicyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisValueWriterTest {
+
+    private static final String STORED_BYTES_METRIC_NAME = new MetricNameBuilder(RedisValueWriter.class).name("stored_bytes");
+    private static final String REJECTED_METRIC_NAME = new MetricNameBuilder(RedisValueWriter.class).name("rejected");
+    private static final int COMPRESSION_THRESHOLD = 64;
+    private static final int MAX_VALUE_BYTES = 4096;
+
+    @Mock
+    private RedisOperations<String, byte[]> binaryRedisTemplate;
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    private MeterRegistry meterRegistry;
+    private RedisValueWriter redisValueWriter;
+
+    @BeforeEach
+    public void init() {
+        final RedisWritePolicyConfig writePolicyConfig = new RedisWritePolicyConfig();
+        writePolicyConfig.setDefaultTtl(Duration.ofDays(7));
+        writePolicyConfig.getTtlByPrefix().put("report", Duration.ofHours(1));
+        writePolicyConfig.getTtlByPrefix().put("report-daily", Duration.ofDays(1));
+        writePolicyConfig.setCompressionThreshold(COMPRESSION_THRESHOLD);
+        writePolicyConfig.setMaxValueBytes(MAX_VALUE_BYTES);
+        meterRegistry = new SimpleMeterRegistry();
+        redisValueWriter = new RedisValueWriter(binaryRedisTemplate, writePolicyConfig, meterRegistry);
+    }
+
+    @Test
+    public void verifySmallValueStoredPlain() {
+        final byte[] encoded = redisValueWriter.encode("key", "small value");
+
+        assertThat(new String(encoded, StandardCharsets.UTF_8), is("small value"));
+    }
+
+    @Test
+    public void verifyLargeValueStoredCompressedAndReadBack() {
+        final String value = "a repetitive message body ".repeat(100);
+        when(binaryRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        final byte[] encoded = redisValueWriter.encode("key", value);
+        when(valueOperations.get("key")).thenReturn(encoded);
+
+        assertThat(encoded.length, lessThan(value.length()));
+        assertThat(redisValueWriter.read("key"), is(Optional.of(value)));
+        assertThat(meterRegistry.get(STORED_BYTES_METRIC_NAME)
+                .tag("compressed", "true").summary().count(), is(1L));
+    }
+
+    @Test
+    public void verifyOversizedValueRejected() {
+        assertThrows(RedisValueRejectedException.class, () -> redisValueWriter.encode("key", "x".repeat(MAX_VALUE_BYTES + 1)));
+
+        assertThat(meterRegistry.get(REJECTED_METRIC_NAME).counter().count(), is(1.0));
+    }
+
+    @Test
+    public void verifyLongestMatchingPrefixTtlWins() {
+        assertThat(redisValueWriter.ttlFor("report-daily-42"), is(Duration.ofDays(1)));
+        assertThat(redisValueWriter.ttlFor("report-weekly-42"), is(Duration.ofHours(1)));
+        assertThat(redisValueWriter.ttlFor("job-42"), is(Duration.ofDays(7)));
+    }
+}
@@ -1,18 +1,23 @@
 package io.skai.template.services;
 
 import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.skai.template.dataaccess.dao.AdGroupDao;
 import io.skai.template.dataaccess.dao.CampaignDao;
 import io.skai.template.dataaccess.entities.AdGroup;
 import io.skai.template.dataaccess.entities.Campaign;
 import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
 import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -38,6 +43,9 @@ class AdGroupServiceTest {
     private static final Status CAMPAIGN_ACTIVE = Status.ACTIVE;
     private static final Status AD_GROUP_ACTIVE = Status.ACTIVE;
     private static final Status AD_GROUP_PAUSED = Status.PAUSED;
+    private static final LocalDateTime EXPECTED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 0);
+    private static final LocalDateTime UPDATED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 5);
+    private static final LocalDateTime MODIFIED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 3);
 
     @InjectMocks
     private AdGroupServiceImpl adGroupService;
@@ -46,6 +54,8 @@ class AdGroupServiceTest {
     private CampaignDao campaignDao;
     @Mock
     private AdGroupDao adGroupDao;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Captor
     private ArgumentCaptor<AdGroup> adGroupArgumentCaptor;
@@ -153,10 +163,12 @@ class AdGroupServiceTest {
                 .status(AD_GROUP_PAUSED)
                 .build();
 
-        when(adGroupDao.findById(AD_GROUP_ID)).thenReturn(Optional.ofNullable(adGroup));
-        adGroupService.update(AD_GROUP_ID, adGroupDataToUpdate);
+        when(adGroupDao.update(any(AdGroup.class))).thenReturn(new UpdateResult(1L, UPDATED_LAST_UPDATED));
+        final LocalDateTime lastUpdated = adGroupService.update(AD_GROUP_ID, adGroupDataToUpdate);
 
         verify(adGroupDao).update(adGroupArgumentCaptor.capture());
+        verify(adGroupDao, never()).findById(AD_GROUP_ID);
+        assertThat(lastUpdated, is(UPDATED_LAST_UPDATED));
 
         final AdGroup adGroupCaptorValue = adGroupArgumentCaptor.getValue();
 
@@ -171,7 +183,7 @@ class AdGroupServiceTest {
                 .status(AD_GROUP_PAUSED)
                 .build();
 
-        when(adGroupDao.findById(AD_GROUP_WRONG_ID)).thenReturn(Optional.empty());
+        when(adGroupDao.update(any(AdGroup.class))).thenReturn(new UpdateResult(0L, null));
 
         final FieldValidationException exception = assertThrows(
                 FieldValidationException.class,
@@ -182,6 +194,26 @@ class AdGroupServiceTest {
         assertThat(exception.getFieldErrors(), is(List.of(new FieldError("id", "AdGroup not found or invalid."))));
     }
 
+    @Test
+    public void verifyWhenAdGroupNotUpdatedWithStaleLastUpdated() {
+        final AdGroup adGroup = AdGroup.builder()
+                .id(AD_GROUP_ID)
+                .campaignId(CAMPAIGN_ID)
+                .name(AD_GROUP_NAME)
+                .status(AD_GROUP_ACTIVE)
+                .build();
+
+        when(adGroupDao.update(any(AdGroup.class), eq(EXPECTED_LAST_UPDATED))).thenReturn(new UpdateResult(0L, MODIFIED_LAST_UPDATED));
+
+        final PreconditionFailedException exception = assertThrows(
+                PreconditionFailedException.class,
+                () -> adGroupService.update(AD_GROUP_ID, adGroup, EXPECTED_LAST_UPDATED)
+        );
+
+        assertThat(exception.getEntityId(), is(AD_GROUP_ID));
+        assertThat(exception.getFieldErrors(), is(List.of(new FieldError("last_updated", "AdGroup was modified by another request."))));
+    }
+
     @Test
     public void verifyWhenAdGroupChangeStatusToDeletedById() {
         final AdGroup adGroup = AdGroup.builder()
@@ -0,0 +1,120 @@
+package io.skai.template.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.config.rabbit.RabbitConfig;
+import io.skai.template.config.rabbit.RabbitConsumerConfig;
+import io.skai.template.config.rabbit.WriteCommandConfig;
+import io.skai.template.dataaccess.entities.Campaign;
+import io.skai.template.dataaccess.entities.CampaignWriteCommand;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.rabbit.producer.KjobsterProducer;
+import io.skai.template.rabbit.producer.MessagePublishException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CampaignCommandServiceTest {
+
+    private static final String OPERATION_ID = "operation-id";
+    private static final String CONSUMER_NAME = "writeCommandConsumer";
+    private static final String BINDING_KEY = "write-command-key";
+    private static final String CAMPAIGN_NAME = "CAMPAIGN_NAME_1";
+    private static final String CAMPAIGN_KS_NAME = "CAMPAIGN_KS_NAME_1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private KjobsterProducer kjobsterProducer;
+    @Mock
+    private OperationService operationService;
+    @Mock
+    private CampaignService campaignService;
+
+    @Captor
+    private ArgumentCaptor<String> messageArgumentCaptor;
+
+    private CampaignCommandServiceImpl campaignCommandService;
+
+    @BeforeEach
+    public void init() {
+        final WriteCommandConfig writeCommandConfig = new WriteCommandConfig();
+        writeCommandConfig.setConsumer(CONSUMER_NAME);
+        final RabbitConsumerConfig consumerConfig = new RabbitConsumerConfig();
+        consumerConfig.setName(CONSUMER_NAME);
+        consumerConfig.setBindingKey(BINDING_KEY);
+        final RabbitConfig rabbitConfig = new RabbitConfig();
+        rabbitConfig.setConsumers(List.of(consumerConfig));
+        campaignCommandService = new CampaignCommandServiceImpl(kjobsterProducer, operationService, objectMapper,
+                writeCommandConfig, rabbitConfig, campaignService);
+    }
+
+    @Test
+    public void verifyCreateCommandPublishedWithOperationId() throws Exception {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(Status.ACTIVE)
+                .build();
+
+        when(operationService.create()).thenReturn(OPERATION_ID);
+
+        final String operationId = campaignCommandService.submitCreate(campaign);
+
+        verify(kjobsterProducer).publish(eq(BINDING_KEY), eq(OPERATION_ID), messageArgumentCaptor.capture());
+
+        final CampaignWriteCommand command = objectMapper.readValue(messageArgumentCaptor.getValue(), CampaignWriteCommand.class);
+
+        assertThat(operationId, is(OPERATION_ID));
+        assertThat(command.operationId(), is(OPERATION_ID));
+        assertThat(command.campaign(), is(campaign));
+    }
+
+    @Test
+    public void verifyOperationFailedWhenPublishFails() {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(Status.ACTIVE)
+                .build();
+
+        when(operationService.create()).thenReturn(OPERATION_ID);
+        doThrow(new MessagePublishException("broker is down", null))
+                .when(kjobsterProducer).publish(eq(BINDING_KEY), eq(OPERATION_ID), anyString());
+
+        assertThrows(MessagePublishException.class, () -> campaignCommandService.submitCreate(campaign));
+
+        verify(operationService).fail(OPERATION_ID, "broker is down");
+    }
+
+    @Test
+    public void verifyInvalidCampaignRejectedBeforePublish() {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .build();
+
+        doThrow(new InvalidRequestException(List.of(new FieldError("status", "Campaign status is required."))))
+                .when(campaignService).validate(campaign);
+
+        assertThrows(InvalidRequestException.class, () -> campaignCommandService.submitCreate(campaign));
+
+        verifyNoInteractions(kjobsterProducer, operationService);
+    }
+
+}
@@ -1,16 +1,23 @@
 package io.skai.template.services;
 
+import com.kenshoo.datadog.MetricNameBuilder;
 import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.skai.template.dataaccess.dao.CampaignDao;
 import io.skai.template.dataaccess.entities.Campaign;
 import io.skai.template.dataaccess.entities.FieldValidationException;
+import io.skai.template.dataaccess.entities.InvalidRequestException;
+import io.skai.template.dataaccess.entities.PreconditionFailedException;
 import io.skai.template.dataaccess.entities.Status;
+import io.skai.template.dataaccess.entities.UpdateResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -21,7 +28,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,12 +46,18 @@ class CampaignServiceTest {
     private static final String CAMPAIGN_KS_NAME_TO_UPDATE = "CAMPAIGN_KS_NAME_TO_UPDATE_1";
     private static final Status ACTIVE = Status.ACTIVE;
     private static final Status PAUSED_TO_UPDATE = Status.PAUSED;
+    private static final String UPDATE_NO_OP_METRIC_NAME = new MetricNameBuilder(CampaignServiceImpl.class).name("update.noop");
+    private static final LocalDateTime EXPECTED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 0);
+    private static final LocalDateTime UPDATED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 5);
+    private static final LocalDateTime MODIFIED_LAST_UPDATED = LocalDateTime.of(2022, 10, 1, 12, 3);
 
     @InjectMocks
     private CampaignServiceImpl campaignService;
 
     @Mock
     private CampaignDao campaignDao;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Captor
     private ArgumentCaptor<Campaign> campaignArgumentCaptor;
@@ -122,10 +139,12 @@ class CampaignServiceTest {
                 .status(PAUSED_TO_UPDATE)
                 .build();
 
-        when(campaignDao.findById(CAMPAIGN_ID)).thenReturn(Optional.ofNullable(campaign));
-        campaignService.update(CAMPAIGN_ID, campaignDataToUpdate);
+        when(campaignDao.update(any(Campaign.class))).thenReturn(new UpdateResult(1L, UPDATED_LAST_UPDATED));
+        final LocalDateTime lastUpdated = campaignService.update(CAMPAIGN_ID, campaignDataToUpdate);
 
         verify(campaignDao).update(campaignArgumentCaptor.capture());
+        verify(campaignDao, never()).findById(CAMPAIGN_ID);
+        assertThat(lastUpdated, is(UPDATED_LAST_UPDATED));
 
         final Campaign campaignCaptorValue = campaignArgumentCaptor.getValue();
 
@@ -142,7 +161,7 @@ class CampaignServiceTest {
                 .status(PAUSED_TO_UPDATE)
                 .build();
 
-        when(campaignDao.findById(CAMPAIGN_WRONG_ID)).thenReturn(Optional.empty());
+        when(campaignDao.update(any(Campaign.class))).thenReturn(new UpdateResult(0L, null));
 
         final FieldValidationException exception = assertThrows(
                 FieldValidationException.class,
@@ -153,6 +172,80 @@ class CampaignServiceTest {
         assertThat(exception.getFieldErrors(), is(List.of(new FieldError("id", "Campaign not found or invalid."))));
     }
 
+    @Test
+    public void verifyWhenCampaignUpdateIsNoOp() {
+        final Campaign campaign = Campaign.builder()
+                .id(CAMPAIGN_ID)
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(ACTIVE)
+                .build();
+
+        when(campaignDao.update(any(Campaign.class))).thenReturn(new UpdateResult(0L, EXPECTED_LAST_UPDATED));
+
+        final LocalDateTime lastUpdated = campaignService.update(CAMPAIGN_ID, campaign);
+
+        assertThat(lastUpdated, is(EXPECTED_LAST_UPDATED));
+        assertThat(meterRegistry.get(UPDATE_NO_OP_METRIC_NAME).counter().count(), is(1.0));
+    }
+
+    @Test
+    public void verifyWhenCampaignUpdatedWithMatchingLastUpdated() {
+        final Campaign campaignDataToUpdate = Campaign.builder()
+                .name(CAMPAIGN_NAME_TO_UPDATE)
+                .ksName(CAMPAIGN_KS_NAME_TO_UPDATE)
+                .status(PAUSED_TO_UPDATE)
+                .build();
+
+        when(campaignDao.update(any(Campaign.class), eq(EXPECTED_LAST_UPDATED))).thenReturn(new UpdateResult(1L, UPDATED_LAST_UPDATED));
+
+        final LocalDateTime lastUpdated = campaignService.update(CAMPAIGN_ID, campaignDataToUpdate, EXPECTED_LAST_UPDATED);
+
+        verify(campaignDao).update(campaignArgumentCaptor.capture(), eq(EXPECTED_LAST_UPDATED));
+
+        assertThat(lastUpdated, is(UPDATED_LAST_UPDATED));
+        assertThat(campaignArgumentCaptor.getValue().getId(), is(CAMPAIGN_ID));
+        assertThat(campaignArgumentCaptor.getValue().getName(), is(CAMPAIGN_NAME_TO_UPDATE));
+    }
+
+    @Test
+    public void verifyWhenCampaignNotUpdatedWithStaleLastUpdated() {
+        final Campaign campaign = Campaign.builder()
+                .id(CAMPAIGN_ID)
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .status(ACTIVE)
+                .build();
+
+        when(campaignDao.update(any(Campaign.class), eq(EXPECTED_LAST_UPDATED))).thenReturn(new UpdateResult(0L, MODIFIED_LAST_UPDATED));
+
+        final PreconditionFailedException exception = assertThrows(
+                PreconditionFailedException.class,
+                () -> campaignService.update(CAMPAIGN_ID, campaign, EXPECTED_LAST_UPDATED)
+        );
+
+        assertThat(exception.getEntityId(), is(CAMPAIGN_ID));
+        assertThat(exception.getFieldErrors(), is(List.of(new FieldError("last_updated", "Campaign was modified by another request."))));
+    }
+
+    @Test
+    public void verifyWhenCampaignNotUpdatedWithLastUpdatedAndWrongId() {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME_TO_UPDATE)
+                .ksName(CAMPAIGN_KS_NAME_TO_UPDATE)
+                .status(PAUSED_TO_UPDATE)
+                .build();
+
+        when(campaignDao.update(any(Campaign.class), eq(EXPECTED_LAST_UPDATED))).thenReturn(new UpdateResult(0L, null));
+
+        final FieldValidationException exception = assertThrows(
+                FieldValidationException.class,
+                () -> campaignService.update(CAMPAIGN_WRONG_ID, campaign, EXPECTED_LAST_UPDATED)
+        );
+
+        assertThat(exception.getEntityId(), is(CAMPAIGN_WRONG_ID));
+    }
+
     @Test
     public void verifyWhenCampaignChangeStatusToDeletedById() {
         final Campaign campaign = Campaign.builder()
@@ -186,4 +279,20 @@ class CampaignServiceTest {
         assertThat(exception.getFieldErrors(), is(List.of(new FieldError("id", "Campaign not found or invalid."))));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void verifyCampaignWithoutStatusRejectedBeforeCreate() {
+        final Campaign campaign = Campaign.builder()
+                .name(CAMPAIGN_NAME)
+                .ksName(CAMPAIGN_KS_NAME)
+                .build();
+
+        final InvalidRequestException exception = assertThrows(
+                InvalidRequestException.class,
+                () -> campaignService.create(campaign)
+        );
+
+        assertThat(exception.getFieldErrors(), is(List.of(new FieldError("status", "Campaign status is required."))));
+        verifyNoInteractions(campaignDao);
+    }
+
+}
@@ -0,0 +1,162 @@
+package io.skai.template.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenshoo.openplatform.apimodel.ApiFetchRequest;
+import com.kenshoo.openplatform.apimodel.QueryFilter;
+import com.kenshoo.openplatform.apimodel.enums.FilterOperator;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.dataaccess.entities.FetchQuery;
+import io.skai.template.dataaccess.entities.QueryFilterException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FilterQueryParserTest {
+
+    private static final int MAX_LENGTH = 256;
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private final FilterQueryParserImpl filterQueryParser = new FilterQueryParserImpl(new ObjectMapper(), MAX_LENGTH, 1024,
+            DEFAULT_LIMIT, MAX_LIMIT);
+
+    @Test
+    public void verifyFiltersParsedInOrder() {
+        final List<QueryFilter<List<String>>> queryFilters = filterQueryParser.parse(
+                "[{\"field\":\"name\",\"operator\":\"EQUALS\",\"values\":[\"name-1\",\"name-2\"]}," +
+                        "{\"field\":\"adGroup.campaignId\",\"operator\":\"IN\",\"values\":[1,2],\"comment\":{\"ignored\":[1]}}]");
+
+        assertThat(queryFilters.size(), is(2));
+        assertThat(queryFilters.get(0).getField(), is("name"));
+        assertThat(queryFilters.get(0).getOperator(), is(FilterOperator.EQUALS));
+        assertThat(queryFilters.get(0).getValues(), contains("name-1", "name-2"));
+        assertThat(queryFilters.get(1).getField(), is("adGroup.campaignId"));
+        assertThat(queryFilters.get(1).getOperator(), is(FilterOperator.IN));
+        assertThat(queryFilters.get(1).getValues(), contains("1", "2"));
+    }
+
+    @Test
+    public void verifyRepeatedFiltersServedFromCache() {
+        final String filters = "[{\"field\":\"name\",\"operator\":\"EQUALS\",\"values\":[\"name-1\"]}]";
+
+        assertThat(filterQueryParser.parse(filters), sameInstance(filterQueryParser.parse(filters)));
+    }
+
+    @Test
+    public void verifyFiltersFormattedDifferentlyShareCacheEntry() {
+        final List<QueryFilter<List<String>>> compact = filterQueryParser.parse(
+                "[{\"field\":\"name\",\"operator\":\"EQUALS\",\"values\":[\"name 1\"]}]");
+        final List<QueryFilter<List<String>>> spaced = filterQueryParser.parse(
+                "[ { \"field\" : \"name\", \"operator\" : \"EQUALS\", \"values\" : [ \"name 1\" ] } ]");
+
+        assertThat(spaced, sameInstance(compact));
+        assertThat(spaced.get(0).getValues(), contains("name 1"));
+    }
+
+    @Test
+    public void verifyWhitespaceBetweenValuesNotDroppedFromCacheKey() {
+        filterQueryParser.parse("[{\"field\":\"id\",\"operator\":\"IN\",\"values\":[12]}]");
+
+        assertFieldError("[{\"field\":\"id\",\"operator\":\"IN\",\"values\":[1 2]}]", "filters",
+                "Cannot parse filters query param. Invalid json pattern");
+    }
+
+    @Test
+    public void verifyTooLongFiltersRejected() {
+        final String filters = "[{\"field\":\"name\",\"operator\":\"EQUALS\",\"values\":[\"" + "a".repeat(MAX_LENGTH) + "\"]}]";
+
+        assertFieldError(filters, "filters", "Filters query param can not be longer than " + MAX_LENGTH + " characters");
+    }
+
+    @Test
+    public void verifyMissingFiltersParsedAsEmpty() {
+        assertThat(filterQueryParser.parse(null), empty());
+    }
+
+    @Test
+    public void verifyMissingFieldRejected() {
+        assertFieldError("[{\"operator\":\"EQUALS\",\"values\":[\"name-1\"]}]", "field", "Json not contains field");
+    }
+
+    @Test
+    public void verifyEmptyValuesRejected() {
+        assertFieldError("[{\"field\":\"name\",\"operator\":\"EQUALS\",\"values\":[]}]", "values", "Value array can not be empty");
+    }
+
+    @Test
+    public void verifyUnknownOperatorRejected() {
+        assertFieldError("[{\"field\":\"name\",\"operator\":\"LIKE\",\"values\":[\"name-1\"]}]", "operator", "Unknown operator LIKE");
+    }
+
+    @Test
+    public void verifyInvalidJsonRejected() {
+        assertFieldError("[{\"field\":\"name\",", "filters", "Cannot parse filters query param. Invalid json pattern");
+        assertFieldError("{\"field\":\"name\"}", "filters", "Cannot parse filters query param. Invalid json pattern");
+    }
+
+    @Test
+    public void verifyFetchRequestBodyParsed() {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchRequest(body(
+                "{\"fields\":[\"id\",\"name\"],\"limit\":10,\"sort\":{\"ignored\":true}," +
+                        "\"filters\":[{\"field\":\"id\",\"operator\":\"IN\",\"values\":[1,2,3]}]}"));
+
+        assertThat(apiFetchRequest.getFields(), contains("id", "name"));
+        assertThat((long) apiFetchRequest.getLimit(), is(10L));
+        assertThat(apiFetchRequest.getFilters().size(), is(1));
+        assertThat(apiFetchRequest.getFilters().get(0).getValues(), contains("1", "2", "3"));
+    }
+
+    @Test
+    public void verifyFetchRequestBodyWithoutLimitGetsDefaultLimit() {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchRequest(body(
+                "{\"fields\":[\"id\"],\"filters\":[{\"field\":\"id\",\"operator\":\"IN\",\"values\":[1,2,3]}]}"));
+
+        assertThat((long) apiFetchRequest.getLimit(), is((long) DEFAULT_LIMIT));
+    }
+
+    @Test
+    public void verifyFetchQueryWithoutLimitGetsDefaultLimit() {
+        final ApiFetchRequest<QueryFilter<List<String>>> apiFetchRequest = filterQueryParser.parseFetchQuery(
+                new FetchQuery(List.of("id"), null, null));
+
+        assertThat((long) apiFetchRequest.getLimit(), is((long) DEFAULT_LIMIT));
+        assertThat(apiFetchRequest.getFilters(), empty());
+    }
+
+    @Test
+    public void verifyLimitAboveMaxRejected() {
+        final QueryFilterException bodyException = assertThrows(QueryFilterException.class,
+                () -> filterQueryParser.parseFetchRequest(body("{\"fields\":[\"id\"],\"limit\":" + (MAX_LIMIT + 1) + "}")));
+        final QueryFilterException queryException = assertThrows(QueryFilterException.class,
+                () -> filterQueryParser.parseFetchQuery(new FetchQuery(List.of("id"), null, MAX_LIMIT + 1)));
+
+        final List<FieldError> expected = List.of(new FieldError("limit", "Limit must be between 1 and " + MAX_LIMIT));
+        assertThat(bodyException.getFieldErrors(), is(expected));
+        assertThat(queryException.getFieldErrors(), is(expected));
+    }
+
+    @Test
+    public void verifyInvalidFetchRequestBodyRejected() {
+        final QueryFilterException exception = assertThrows(QueryFilterException.class,
+                () -> filterQueryParser.parseFetchRequest(body("{\"filters\":{}}")));
+
+        assertThat(exception.getFieldErrors(), is(List.of(new FieldError("filters", "Cannot parse fetch request body. Invalid json pattern"))));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertFieldError(String filters, String field, String message) {
+        final QueryFilterException exception = assertThrows(QueryFilterException.class, () -> filterQueryParser.parse(filters));
+
+        assertThat(exception.getFieldErrors(), is(List.of(new FieldError(field, message))));
+    }
+}
@@ -116,6 +116,19 @@ public class FilterQueryServiceTest {
         );
     }
 
+    @Test
+    public void verifyFilteringByAdGroupFieldsByInWithoutPrefix() {
+        final List<QueryFilter<List<String>>> queryFilters = List.of(
+                new QueryFilter<>("campaignId", FilterOperator.IN, List.of(AD_GROUP_CAMPAIGN_ID_1, AD_GROUP_CAMPAIGN_ID_2))
+        );
+
+        when(fieldMapperService.parseAdGroupField(anyString())).thenReturn(Optional.of(new FieldMapper<>("campaignId", AdGroupTable.TABLE.campaignId, (builder, value) -> builder.campaignId(value))));
+
+        final Optional<Condition> condition = filterQueryService.filteringByAdGroupFields(queryFilters);
+
+        assertThat(condition.get(), is(AdGroupTable.TABLE.campaignId.in(1L, 2L)));
+    }
+
     @Test
     public void verifyFilteringByCampaignFieldsByEqualsAndInWithoutAdGroupPrefix() {
         final List<QueryFilter<List<String>>> queryFilters = List.of(
@@ -0,0 +1,156 @@
+package io.skai.template.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.kenshoo.openplatform.apimodel.errors.FieldError;
+import io.skai.template.dataaccess.entities.IdempotencyConflictException;
+import io.skai.template.dataaccess.entities.IdempotencyKeyReuseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    private static final String SCOPE = "campaign";
+    private static final String CALLER = "user@skai.io";
+    private static final String IDEMPOTENCY_KEY = "key-1";
+    private static final String REDIS_KEY = "idempotency:campaign:user@skai.io:key-1";
+    private static final long CAMPAIGN_ID = 3L;
+    private static final Map<String, String> REQUEST = Map.of("name", "campaign");
+    private static final Map<String, String> OTHER_REQUEST = Map.of("name", "other campaign");
+
+    @Mock
+    private RedisOperations<String, String> redisOperations;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private LongSupplier action;
+
+    private IdempotencyServiceImpl idempotencyService;
+    private String requestHash;
+
+    @BeforeEach
+    public void init() {
+        when(redisOperations.opsForValue()).thenReturn(valueOperations);
+        idempotencyService = new IdempotencyServiceImpl(redisOperations, new ObjectMapper(), TTL, LOCK_TTL);
+        requestHash = Hashing.sha256().hashString("{\"name\":\"campaign\"}", StandardCharsets.UTF_8).toString();
+    }
+
+    @AfterEach
+    public void destroy() {
+        idempotencyService.destroy();
+    }
+
+    @Test
+    public void verifyActionExecutedAndIdRecordedForNewKey() {
+        when(valueOperations.setIfAbsent(REDIS_KEY, requestHash + ":IN_PROGRESS", LOCK_TTL)).thenReturn(true);
+        when(action.getAsLong()).thenReturn(CAMPAIGN_ID);
+
+        final long id = idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, REQUEST, action);
+
+        assertThat(id, is(CAMPAIGN_ID));
+        verify(valueOperations).set(REDIS_KEY, requestHash + ":" + CAMPAIGN_ID, TTL);
+    }
+
+    @Test
+    public void verifyRecordedIdReturnedForRepeatedKey() {
+        when(valueOperations.setIfAbsent(REDIS_KEY, requestHash + ":IN_PROGRESS", LOCK_TTL)).thenReturn(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn(requestHash + ":" + CAMPAIGN_ID);
+
+        final long id = idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, REQUEST, action);
+
+        assertThat(id, is(CAMPAIGN_ID));
+        verifyNoInteractions(action);
+    }
+
+    @Test
+    public void verifyConflictWhenRepeatedKeyStillInProgress() {
+        when(valueOperations.setIfAbsent(REDIS_KEY, requestHash + ":IN_PROGRESS", LOCK_TTL)).thenReturn(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn(requestHash + ":IN_PROGRESS");
+
+        final IdempotencyConflictException exception = assertThrows(
+                IdempotencyConflictException.class,
+                () -> idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, REQUEST, action)
+        );
+
+        assertThat(exception.getFieldErrors(), is(List.of(
+                new FieldError("Idempotency-Key", "Request with the same idempotency key is still in progress."))));
+        verifyNoInteractions(action);
+    }
+
+    @Test
+    public void verifyKeyReuseRejectedForDifferentRequest() {
+        when(valueOperations.setIfAbsent(eq(REDIS_KEY), anyString(), eq(LOCK_TTL))).thenReturn(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn(requestHash + ":" + CAMPAIGN_ID);
+
+        final IdempotencyKeyReuseException exception = assertThrows(
+                IdempotencyKeyReuseException.class,
+                () -> idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, OTHER_REQUEST, action)
+        );
+
+        assertThat(exception.getFieldErrors(), is(List.of(
+                new FieldError("Idempotency-Key", "Idempotency key was already used with a different request."))));
+        verifyNoInteractions(action);
+    }
+
+    @Test
+    public void verifyLockExtendedWhileActionRuns() {
+        idempotencyService = new IdempotencyServiceImpl(redisOperations, new ObjectMapper(), TTL, Duration.ofMillis(30));
+        when(valueOperations.setIfAbsent(REDIS_KEY, requestHash + ":IN_PROGRESS", Duration.ofMillis(30))).thenReturn(true);
+        when(action.getAsLong()).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return CAMPAIGN_ID;
+        });
+
+        idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, REQUEST, action);
+
+        verify(redisOperations, atLeastOnce()).execute(any(), eq(List.of(REDIS_KEY)), eq(requestHash + ":IN_PROGRESS"), eq("30"));
+    }
+
+    @Test
+    public void verifyKeyReleasedWhenActionFails() {
+        when(valueOperations.setIfAbsent(REDIS_KEY, requestHash + ":IN_PROGRESS", LOCK_TTL)).thenReturn(true);
+        when(action.getAsLong()).thenThrow(new IllegalStateException("db is down"));
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, REQUEST, action));
+
+        verify(redisOperations).delete(REDIS_KEY);
+    }
+
+    @Test
+    public void verifyCreatedIdReturnedWhenRecordingItFails() {
+        when(valueOperations.setIfAbsent(REDIS_KEY, requestHash + ":IN_PROGRESS", LOCK_TTL)).thenReturn(true);
+        when(action.getAsLong()).thenReturn(CAMPAIGN_ID);
+        doThrow(new RedisConnectionFailureException("redis is down"))
+                .when(valueOperations).set(REDIS_KEY, requestHash + ":" + CAMPAIGN_ID, TTL);
+
+        final long id = idempotencyService.execute(SCOPE, CALLER, IDEMPOTENCY_KEY, REQUEST, action);
+
+        assertThat(id, is(CAMPAIGN_ID));
+        verify(redisOperations, never()).delete(REDIS_KEY);
+    }
+
+}